@@ -13,9 +13,11 @@ import org.apache.logging.log4j.Logger;
 import net.minecraftforge.fml.common.Mod;
 import net.minecraftforge.fml.common.SidedProxy;
 import net.minecraftforge.fml.common.event.FMLInitializationEvent;
+import net.minecraftforge.fml.common.event.FMLModIdMappingEvent;
 import net.minecraftforge.fml.common.event.FMLPostInitializationEvent;
 import net.minecraftforge.fml.common.event.FMLPreInitializationEvent;
 import net.minecraftforge.fml.common.event.FMLServerStartingEvent;
+import net.minecraftforge.fml.common.event.FMLServerStoppedEvent;
 
 import com.machineryassembler.common.CommonProxy;
 
@@ -65,8 +67,18 @@ public class MachineryAssembler {
         proxy.postInit();
     }
 
+    @Mod.EventHandler
+    public void onIdMapping(FMLModIdMappingEvent event) {
+        proxy.idMapping();
+    }
+
     @Mod.EventHandler
     public void onServerStart(FMLServerStartingEvent event) {
         proxy.serverStart(event);
     }
+
+    @Mod.EventHandler
+    public void onServerStopped(FMLServerStoppedEvent event) {
+        proxy.serverStopped();
+    }
 }
@@ -1,15 +1,21 @@
 package com.machineryassembler.client;
 
 import net.minecraft.client.Minecraft;
+import net.minecraft.client.resources.IReloadableResourceManager;
 import net.minecraftforge.common.MinecraftForge;
 import net.minecraftforge.fml.relauncher.Side;
 import net.minecraftforge.fml.relauncher.SideOnly;
 
 import com.machineryassembler.client.integration.jei.JEIScrollHandler;
 import com.machineryassembler.client.integration.jei.MAJEIPlugin;
+import com.machineryassembler.client.render.AverageBlockColors;
 import com.machineryassembler.client.render.BatonHighlightRenderer;
+import com.machineryassembler.client.render.BlockStateRenderValidator;
 import com.machineryassembler.client.render.InWorldPreviewRenderer;
+import com.machineryassembler.client.render.StructureRenderHelper;
+import com.machineryassembler.client.render.StructureThumbnails;
 import com.machineryassembler.common.CommonProxy;
+import com.machineryassembler.common.structure.BlockRequirement;
 
 
 @SideOnly(Side.CLIENT)
@@ -17,10 +23,12 @@ public class ClientProxy extends CommonProxy {
 
     public static final InWorldPreviewRenderer previewRenderer = new InWorldPreviewRenderer();
     public static final BatonHighlightRenderer highlightRenderer = new BatonHighlightRenderer();
+    public static final StructureThumbnails thumbnails = new StructureThumbnails();
 
     private final PreviewKeybindHandler keybindHandler = new PreviewKeybindHandler();
     private final PreviewInteractionHandler interactionHandler = new PreviewInteractionHandler();
     private final JEIScrollHandler jeiScrollHandler = new JEIScrollHandler();
+    private final StructureSyncHandler structureSyncHandler = new StructureSyncHandler();
 
     @Override
     public void preInit() {
@@ -30,12 +38,23 @@ public class ClientProxy extends CommonProxy {
         MinecraftForge.EVENT_BUS.register(interactionHandler);
         MinecraftForge.EVENT_BUS.register(new PreviewRenderHandler());
         MinecraftForge.EVENT_BUS.register(highlightRenderer);
+        MinecraftForge.EVENT_BUS.register(structureSyncHandler);
     }
 
     @Override
     public void init() {
         super.init();
         MinecraftForge.EVENT_BUS.register(jeiScrollHandler);
+
+        // Caches derived from textures, models and block lookups
+        ((IReloadableResourceManager) Minecraft.getMinecraft().getResourceManager())
+            .registerReloadListener(resourceManager -> {
+                AverageBlockColors.clear();
+                BlockStateRenderValidator.clear();
+                StructureRenderHelper.clearGeometryCache();
+                thumbnails.clear();
+                BlockRequirement.clearStackCache();
+            });
     }
 
     @Override
@@ -43,6 +62,14 @@ public class ClientProxy extends CommonProxy {
         super.postInit();
     }
 
+    @Override
+    public void idMapping() {
+        super.idMapping();
+
+        // Cached by state and item ids. Also fired on the integrated server's thread when loading a world
+        Minecraft.getMinecraft().addScheduledTask(BlockStateRenderValidator::clear);
+    }
+
     @Override
     public void onStructuresReloaded() {
         // Notify JEI wrappers on client side
@@ -10,6 +10,8 @@ import net.minecraftforge.fml.common.gameevent.TickEvent;
 import net.minecraftforge.fml.relauncher.Side;
 import net.minecraftforge.fml.relauncher.SideOnly;
 
+import com.machineryassembler.client.render.PreviewWorldListener;
+
 
 /**
  * Handles render events for in-world structure preview.
@@ -24,6 +26,11 @@ public class PreviewRenderHandler {
         ClientProxy.previewRenderer.tick();
     }
 
+    @SubscribeEvent
+    public void onRenderTick(TickEvent.RenderTickEvent event) {
+        if (event.phase == TickEvent.Phase.START) ClientProxy.thumbnails.beginFrame();
+    }
+
     @SubscribeEvent
     public void onRenderWorld(RenderWorldLastEvent event) {
         if (!ClientProxy.previewRenderer.hasActivePreview()) return;
@@ -31,6 +38,11 @@ public class PreviewRenderHandler {
         ClientProxy.previewRenderer.renderTranslucentBlocks();
     }
 
+    @SubscribeEvent
+    public void onWorldLoad(WorldEvent.Load event) {
+        if (event.getWorld().isRemote) event.getWorld().addEventListener(new PreviewWorldListener(ClientProxy.previewRenderer));
+    }
+
     @SubscribeEvent
     public void onWorldUnload(WorldEvent.Unload event) {
         if (event.getWorld().isRemote) ClientProxy.previewRenderer.unloadWorld();
@@ -0,0 +1,192 @@
+// SPDX-License-Identifier: GPL-3.0-or-later
+// SPDX-FileCopyrightText: 2026 Machinery Assembler Contributors
+
+package com.machineryassembler.client;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.DataFormatException;
+
+import javax.annotation.Nullable;
+
+import com.google.gson.JsonParseException;
+
+import net.minecraft.client.Minecraft;
+import net.minecraft.util.ResourceLocation;
+import net.minecraftforge.fml.common.eventhandler.SubscribeEvent;
+import net.minecraftforge.fml.common.network.FMLNetworkEvent;
+import net.minecraftforge.fml.relauncher.Side;
+import net.minecraftforge.fml.relauncher.SideOnly;
+
+import com.machineryassembler.MachineryAssembler;
+import com.machineryassembler.common.CommonProxy;
+import com.machineryassembler.common.network.NetworkHandler;
+import com.machineryassembler.common.network.PacketStructureDefinitions;
+import com.machineryassembler.common.network.PacketStructureManifest;
+import com.machineryassembler.common.network.PacketStructureRequest;
+import com.machineryassembler.common.structure.Structure;
+import com.machineryassembler.common.structure.StructureLoader;
+import com.machineryassembler.common.structure.StructureRegistry;
+import com.machineryassembler.common.structure.StructureSync;
+
+
+/**
+ * Client side of the structure definition sync (see {@link StructureSync}).
+ * <p>
+ * Structures whose local definition doesn't match the server's manifest are replaced by the server's,
+ * read from the cache when it already holds that hash, or requested otherwise.
+ * Received definitions are cached as sent (deflated), one file per hash, so they are reused on later
+ * connections and across servers. Local definitions are put back when leaving the server.
+ */
+@SideOnly(Side.CLIENT)
+public class StructureSyncHandler {
+
+    // Local definitions of the structures replaced by the server's, null for structures only the server has
+    private static final Map<ResourceLocation, String> replacedDefinitions = new HashMap<>();
+
+    /**
+     * Handle the server's manifest: apply cached definitions and request missing ones.
+     */
+    public static void handleManifest(PacketStructureManifest packet) {
+        List<ResourceLocation> missing = new ArrayList<>();
+        int fromCache = 0;
+
+        for (Map.Entry<ResourceLocation, String> entry : packet.getHashes().entrySet()) {
+            ResourceLocation structureId = entry.getKey();
+            String hash = entry.getValue();
+
+            Structure local = StructureRegistry.getRegistry().getStructure(structureId);
+            if (local != null && hash.equals(local.getDefinitionHash())) continue;
+
+            byte[] cached = readCache(hash);
+            if (cached != null && apply(structureId, hash, cached)) {
+                fromCache++;
+            } else {
+                missing.add(structureId);
+            }
+        }
+
+        for (PacketStructureRequest request : PacketStructureRequest.split(missing)) {
+            NetworkHandler.INSTANCE.sendToServer(request);
+        }
+
+        if (fromCache > 0) MachineryAssembler.proxy.onStructuresReloaded();
+
+        MachineryAssembler.LOGGER.info("[Machinery Assembler] Server structures: {} from cache, {} requested",
+            fromCache, missing.size());
+    }
+
+    /**
+     * Handle definitions sent by the server: cache them, then apply them.
+     */
+    public static void handleDefinitions(PacketStructureDefinitions packet) {
+        boolean changed = false;
+
+        for (PacketStructureDefinitions.Definition definition : packet.getDefinitions()) {
+            if (!apply(definition.getStructureId(), definition.getHash(), definition.getData())) continue;
+
+            writeCache(definition.getHash(), definition.getData());
+            changed = true;
+        }
+
+        if (changed) MachineryAssembler.proxy.onStructuresReloaded();
+    }
+
+    @SubscribeEvent
+    public void onDisconnect(FMLNetworkEvent.ClientDisconnectionFromServerEvent event) {
+        // Fired on the network thread
+        Minecraft.getMinecraft().addScheduledTask(StructureSyncHandler::restoreLocalDefinitions);
+    }
+
+    /**
+     * Put back the local definitions of the structures the server replaced, and drop the ones it added.
+     */
+    private static void restoreLocalDefinitions() {
+        if (replacedDefinitions.isEmpty()) return;
+
+        for (Map.Entry<ResourceLocation, String> entry : replacedDefinitions.entrySet()) {
+            if (entry.getValue() == null) {
+                StructureRegistry.removeStructure(entry.getKey());
+                continue;
+            }
+
+            try {
+                StructureRegistry.mergeStructure(StructureLoader.loadFromString(entry.getValue()));
+            } catch (JsonParseException e) {
+                MachineryAssembler.LOGGER.warn("Failed to restore local structure {}", entry.getKey(), e);
+            }
+        }
+
+        replacedDefinitions.clear();
+        MachineryAssembler.proxy.onStructuresReloaded();
+    }
+
+    /**
+     * Decompress, check and register one definition from the server.
+     *
+     * @return true if the structure was registered
+     */
+    private static boolean apply(ResourceLocation structureId, String hash, byte[] data) {
+        Structure structure;
+
+        try {
+            String json = StructureSync.decompress(data);
+            if (!hash.equals(StructureSync.hash(json))) {
+                MachineryAssembler.LOGGER.warn("Received structure {} doesn't match its hash, ignoring it", structureId);
+
+                return false;
+            }
+
+            structure = StructureLoader.loadFromString(json);
+        } catch (DataFormatException | JsonParseException e) {
+            MachineryAssembler.LOGGER.warn("Failed to load structure {} from the server", structureId, e);
+
+            return false;
+        }
+
+        if (!structure.getRegistryName().equals(structureId)) {
+            MachineryAssembler.LOGGER.warn("Received structure {} is named {}, ignoring it", structureId, structure.getRegistryName());
+
+            return false;
+        }
+
+        if (!replacedDefinitions.containsKey(structureId)) {
+            Structure local = StructureRegistry.getRegistry().getStructure(structureId);
+            replacedDefinitions.put(structureId, local != null ? local.getDefinition() : null);
+        }
+
+        StructureRegistry.mergeStructure(structure);
+
+        return true;
+    }
+
+    @Nullable
+    private static byte[] readCache(String hash) {
+        File file = new File(CommonProxy.dataHolder.getStructureCacheDirectory(), hash + ".bin");
+        if (!file.isFile()) return null;
+
+        try {
+            return Files.readAllBytes(file.toPath());
+        } catch (IOException e) {
+            MachineryAssembler.LOGGER.warn("Failed to read cached structure {}", file, e);
+
+            return null;
+        }
+    }
+
+    private static void writeCache(String hash, byte[] data) {
+        File directory = CommonProxy.dataHolder.getStructureCacheDirectory();
+        if (!directory.exists()) directory.mkdirs();
+
+        try {
+            Files.write(new File(directory, hash + ".bin").toPath(), data);
+        } catch (IOException e) {
+            MachineryAssembler.LOGGER.warn("Failed to cache structure {}", hash, e);
+        }
+    }
+}
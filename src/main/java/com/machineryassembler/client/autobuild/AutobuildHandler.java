@@ -8,6 +8,8 @@ import java.util.Map;
 
 import javax.annotation.Nullable;
 
+import it.unimi.dsi.fastutil.ints.Int2IntMap;
+
 import net.minecraft.block.state.IBlockState;
 import net.minecraft.client.Minecraft;
 import net.minecraft.entity.player.EntityPlayer;
@@ -29,6 +31,7 @@ import com.machineryassembler.common.network.PacketAutobuildMissingBlocks;
 import com.machineryassembler.common.network.PacketAutobuildObstruction;
 import com.machineryassembler.common.network.PacketAutobuildPlacementIssue;
 import com.machineryassembler.common.network.PacketAutobuildPlacementIssue.PlacementIssue;
+import com.machineryassembler.common.network.PacketAutobuildQueueStatus;
 import com.machineryassembler.common.network.PacketAutobuildRequest;
 import com.machineryassembler.common.network.PacketAutobuildResult;
 import com.machineryassembler.common.structure.BlockRequirement;
@@ -166,7 +169,8 @@ public class AutobuildHandler {
 
         // Send request to server
         player.sendMessage(new TextComponentTranslation("message.machineryassembler.baton.building"));
-        NetworkHandler.INSTANCE.sendToServer(new PacketAutobuildRequest(structureId, origin));
+        NetworkHandler.INSTANCE.sendToServer(new PacketAutobuildRequest(structureId, origin,
+            ClientProxy.previewRenderer.getRotation()));
 
         // Fully tear down the autobuild state. The anchor position served its purpose
         // and must not linger, otherwise further right-clicks would re-trigger autobuild.
@@ -191,12 +195,15 @@ public class AutobuildHandler {
     public static void handleObstructionResponse(PacketAutobuildObstruction packet) {
         List<BlockPos> obstructed = packet.getObstructedPositions();
 
+        // Large reports come in fragments, each one is highlighted as it arrives
         BatonHighlightRenderer.addHighlights(obstructed, BatonHighlightRenderer.HighlightType.OBSTRUCTION);
 
+        if (!packet.isFirstFragment()) return;
+
         EntityPlayer player = Minecraft.getMinecraft().player;
 
         if (player != null) {
-            player.sendMessage(new TextComponentTranslation("message.machineryassembler.baton.obstructed", obstructed.size()));
+            player.sendMessage(new TextComponentTranslation("message.machineryassembler.baton.obstructed", packet.getTotalCount()));
         }
 
         // Clear selection since build cannot proceed
@@ -207,7 +214,7 @@ public class AutobuildHandler {
      * Handle missing blocks response from server.
      */
     public static void handleMissingBlocksResponse(PacketAutobuildMissingBlocks packet) {
-        Map<String, Integer> missing = packet.getMissingBlocks();
+        Int2IntMap missing = packet.getMissingBlocks();
         EntityPlayer player = Minecraft.getMinecraft().player;
 
         if (player == null) return;
@@ -220,14 +227,15 @@ public class AutobuildHandler {
         }
 
         // Show missing blocks to player
-        int totalMissing = missing.values().stream().mapToInt(Integer::intValue).sum();
+        int totalMissing = 0;
+        for (int count : missing.values()) totalMissing += count;
         player.sendMessage(new TextComponentTranslation("message.machineryassembler.baton.missing_blocks", totalMissing));
 
         // Show details
-        for (Map.Entry<String, Integer> entry : missing.entrySet()) {
-            String displayName = BlockSourceUtils.getDisplayName(entry.getKey());
+        for (Int2IntMap.Entry entry : missing.int2IntEntrySet()) {
+            String displayName = BlockSourceUtils.getDisplayName(entry.getIntKey());
             String key = "message.machineryassembler.baton.missing_entry";
-            player.sendMessage(new TextComponentTranslation(key, displayName, entry.getValue()));
+            player.sendMessage(new TextComponentTranslation(key, displayName, entry.getIntValue()));
         }
     }
 
@@ -255,6 +263,33 @@ public class AutobuildHandler {
         }
     }
 
+    /**
+     * Handle the status of a request that has not started building yet.
+     */
+    public static void handleQueueStatus(PacketAutobuildQueueStatus packet) {
+        EntityPlayer player = Minecraft.getMinecraft().player;
+
+        if (player == null) return;
+
+        switch (packet.getStatus()) {
+            case QUEUED:
+                player.sendMessage(new TextComponentTranslation("message.machineryassembler.baton.queued", packet.getValue()));
+                break;
+
+            case STARTED:
+                player.sendMessage(new TextComponentTranslation("message.machineryassembler.baton.queue_started"));
+                break;
+
+            case DUPLICATE:
+                player.sendMessage(new TextComponentTranslation("message.machineryassembler.baton.duplicate"));
+                break;
+
+            case REJECTED:
+                player.sendMessage(new TextComponentTranslation("message.machineryassembler.baton.rejected", packet.getValue()));
+                break;
+        }
+    }
+
     /**
      * Handle placement issues from server.
      */
@@ -43,6 +43,8 @@ public class ConfigGui extends GuiConfig {
         if (config != null) {
             elements.addAll(new ConfigElement(
                 config.getCategory(AutobuildConfig.CATEGORY)).getChildElements());
+            elements.addAll(new ConfigElement(
+                config.getCategory(AutobuildConfig.CATEGORY_PREVIEW)).getChildElements());
         }
 
         return elements;
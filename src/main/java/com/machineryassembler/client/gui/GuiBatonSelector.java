@@ -31,6 +31,7 @@ import net.minecraftforge.fml.relauncher.Side;
 import net.minecraftforge.fml.relauncher.SideOnly;
 
 import com.machineryassembler.MachineryAssembler;
+import com.machineryassembler.client.ClientProxy;
 import com.machineryassembler.client.autobuild.AutobuildHandler;
 import com.machineryassembler.client.render.StructureRenderContext;
 import com.machineryassembler.client.render.StructureRenderHelper;
@@ -349,7 +350,8 @@ public class GuiBatonSelector extends GuiScreen {
      */
     private class StructureListWidget {
         private final int x, y, w, h;
-        private final int entryHeight = 16;
+        private final int entryHeight = 20;
+        private final int thumbnailSize = 18;
 
         private List<ResourceLocation> allStructures;
         private List<ResourceLocation> filteredStructures;
@@ -451,25 +453,30 @@ public class GuiBatonSelector extends GuiScreen {
                     Gui.drawRect(x, entryY, x + w - 10, entryY + entryHeight, 0x40FFFFFF);
                 }
 
+                Structure s = StructureRegistry.getRegistry().getStructure(id);
+
+                // Draw thumbnail, blank until rendered
+                if (s != null) ClientProxy.thumbnails.draw(s, x + 1, entryY + 1, thumbnailSize);
+
                 // Draw name
                 String displayName;
 
                 if (useI18nNames) {
-                    Structure s = StructureRegistry.getRegistry().getStructure(id);
                     displayName = s != null ? s.getLocalizedName() : id.getPath();
                 } else {
                     displayName = id.toString();
                 }
 
                 // Truncate if too long
-                if (fontRenderer.getStringWidth(displayName) > w - 16) {
-                    while (fontRenderer.getStringWidth(displayName + "...") > w - 16 && displayName.length() > 0) {
+                int nameWidth = w - 16 - thumbnailSize - 2;
+                if (fontRenderer.getStringWidth(displayName) > nameWidth) {
+                    while (fontRenderer.getStringWidth(displayName + "...") > nameWidth && displayName.length() > 0) {
                         displayName = displayName.substring(0, displayName.length() - 1);
                     }
                     displayName += "...";
                 }
 
-                fontRenderer.drawString(displayName, x + 2, entryY + 4, selected ? 0xFFFFFF : 0xCCCCCC);
+                fontRenderer.drawString(displayName, x + thumbnailSize + 4, entryY + 6, selected ? 0xFFFFFF : 0xCCCCCC);
             }
 
             // Draw scrollbar if needed
@@ -97,7 +97,9 @@ public class StructurePreviewWrapper implements IRecipeWrapper {
     private long sampleTick = 0;
 
     private final Structure structure;
-    private StructureRenderContext context;
+
+    // Created on first use, JEI makes a wrapper for every structure
+    private StructureRenderContext context = null;
 
     // Dragging state
     private boolean isDragging = false;
@@ -172,7 +174,6 @@ public class StructurePreviewWrapper implements IRecipeWrapper {
 
     public StructurePreviewWrapper(Structure structure) {
         this.structure = structure;
-        this.context = StructureRenderContext.createContext(structure);
     }
 
     public Structure getStructure() {
@@ -183,7 +184,7 @@ public class StructurePreviewWrapper implements IRecipeWrapper {
      * Called when the structure is reloaded to update the context.
      */
     public void onStructureReloaded() {
-        this.context = StructureRenderContext.createContext(structure);
+        if (context != null) this.context = StructureRenderContext.createContext(structure);
     }
 
     /**
@@ -322,13 +323,20 @@ public class StructurePreviewWrapper implements IRecipeWrapper {
         int previewX = recipeWidth / 2;
         int previewY = previewTop + (previewBottom - previewTop) / 2;
 
-        StructureRenderHelper render = context.getRender();
+        // The thumbnail stands in until the preview is hovered, so paging through structures builds no context
+        boolean previewHovered = mouseX >= 0 && mouseX < recipeWidth && mouseY >= previewTop && mouseY < previewBottom;
+        int thumbnailSize = Math.min(recipeWidth - 14, previewBottom - previewTop);
 
-        if (context.doesRender3D()) {
-            render.render3DGUI(previewX, previewY, context.getScale(), 0);
-        } else {
-            render.render3DGUI(previewX, previewY, context.getScale(), 0,
-                Optional.of(context.getRenderSlice()));
+        if (context != null || previewHovered
+            || !ClientProxy.thumbnails.draw(structure, previewX - thumbnailSize / 2, previewY - thumbnailSize / 2, thumbnailSize)) {
+            StructureRenderHelper render = getContext().getRender();
+
+            if (context.doesRender3D()) {
+                render.render3DGUI(previewX, previewY, context.getScale(), 0);
+            } else {
+                render.render3DGUI(previewX, previewY, context.getScale(), 0,
+                    Optional.of(context.getRenderSlice()));
+            }
         }
 
         // Draw buttons
@@ -336,7 +344,7 @@ public class StructurePreviewWrapper implements IRecipeWrapper {
         drawButtons(minecraft, mouseX, mouseY, recipeWidth, recipeHeight);
 
         // Draw layer indicator in 2D mode
-        if (!context.doesRender3D()) {
+        if (!isRender3D()) {
             // Calculate layer number relative to structure (1-indexed from bottom)
             StructurePattern pattern = structure.getPattern();
             int minY = pattern.getMin().getY() + context.getMoveOffset().getY();
@@ -891,7 +899,7 @@ public class StructurePreviewWrapper implements IRecipeWrapper {
 
         // Layer toggle button
         boolean layerHovered = isInButton(mouseX, mouseY, btnLayerX, btnLayerY);
-        String layerLabel = context.doesRender3D() ? "3" : "2";
+        String layerLabel = isRender3D() ? "3" : "2";
         drawVanillaButton(btnLayerX, btnLayerY, BUTTON_SIZE, BUTTON_SIZE, layerHovered);
         int layerTextX = btnLayerX + (BUTTON_SIZE - fr.getStringWidth(layerLabel)) / 2;
         int layerTextY = btnLayerY + (BUTTON_SIZE - 8) / 2;
@@ -915,7 +923,7 @@ public class StructurePreviewWrapper implements IRecipeWrapper {
 
         // Draw tooltips
         if (layerHovered) {
-            drawTooltip(minecraft, mouseX, mouseY, context.doesRender3D()
+            drawTooltip(minecraft, mouseX, mouseY, isRender3D()
                 ? I18n.format("gui.machineryassembler.button.layer.to2d")
                 : I18n.format("gui.machineryassembler.button.layer.to3d"));
         } else if (previewHovered) {
@@ -958,6 +966,13 @@ public class StructurePreviewWrapper implements IRecipeWrapper {
         fr.drawString(text, x, y, 0xFFFFFF);
     }
 
+    /**
+     * Whether the preview is in 3D mode, which a context not created yet starts in.
+     */
+    private boolean isRender3D() {
+        return context == null || context.doesRender3D();
+    }
+
     private boolean isInButton(int mouseX, int mouseY, int btnX, int btnY) {
         return mouseX >= btnX && mouseX < btnX + BUTTON_SIZE &&
                mouseY >= btnY && mouseY < btnY + BUTTON_SIZE;
@@ -970,7 +985,7 @@ public class StructurePreviewWrapper implements IRecipeWrapper {
             // First check if right-clicking a message item slot (show usages)
             if (handleMessageItemClick(mouseX, mouseY, true)) return true;
 
-            context.snapSamples();
+            getContext().snapSamples();
             if (ClientProxy.previewRenderer.startPreview(context)) {
                 minecraft.displayGuiScreen(null);
             }
@@ -986,7 +1001,7 @@ public class StructurePreviewWrapper implements IRecipeWrapper {
         // Check button clicks
         if (isInButton(mouseX, mouseY, btnLayerX, btnLayerY)) {
             // Toggle 2D/3D
-            if (context.doesRender3D()) {
+            if (getContext().doesRender3D()) {
                 context.setTo2D();
             } else {
                 context.setTo3D();
@@ -997,7 +1012,7 @@ public class StructurePreviewWrapper implements IRecipeWrapper {
 
         if (isInButton(mouseX, mouseY, btnPreviewX, btnPreviewY)) {
             // Start in-world preview
-            context.snapSamples();
+            getContext().snapSamples();
             if (ClientProxy.previewRenderer.startPreview(context)) {
                 minecraft.displayGuiScreen(null);
             }
@@ -1007,7 +1022,7 @@ public class StructurePreviewWrapper implements IRecipeWrapper {
 
         if (isInButton(mouseX, mouseY, btnResetX, btnResetY)) {
             // Reset view
-            context.getRender().resetRotation();
+            getContext().getRender().resetRotation();
             context.resetScale();
 
             return true;
@@ -1080,7 +1095,7 @@ public class StructurePreviewWrapper implements IRecipeWrapper {
 
             // Only apply rotation if the delta is reasonable (prevents jumps when recipe changes)
             if (Math.abs(dx) < 50 && Math.abs(dy) < 50) {
-                StructureRenderHelper render = context.getRender();
+                StructureRenderHelper render = getContext().getRender();
 
                 if (context.doesRender3D()) {
                     // Negate dy for intuitive vertical drag, keep dx positive for intuitive horizontal
@@ -1116,7 +1131,7 @@ public class StructurePreviewWrapper implements IRecipeWrapper {
                 slotPage++;
                 return true;
             }
-        } else if (context.doesRender3D()) {
+        } else if (getContext().doesRender3D()) {
             // Zoom in/out
             if (scrollDelta > 0) {
                 context.zoomIn();
@@ -1139,7 +1154,12 @@ public class StructurePreviewWrapper implements IRecipeWrapper {
         return false;
     }
 
+    /**
+     * Gets the render context, creating it when the preview is first needed.
+     */
     public StructureRenderContext getContext() {
+        if (context == null) context = StructureRenderContext.createContext(structure);
+
         return context;
     }
 
@@ -0,0 +1,79 @@
+// SPDX-License-Identifier: GPL-3.0-or-later
+// SPDX-FileCopyrightText: 2026 Machinery Assembler Contributors
+
+package com.machineryassembler.client.render;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import net.minecraft.block.state.IBlockState;
+import net.minecraft.client.Minecraft;
+import net.minecraft.client.renderer.texture.TextureAtlasSprite;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.IBlockAccess;
+import net.minecraftforge.fml.relauncher.Side;
+import net.minecraftforge.fml.relauncher.SideOnly;
+
+
+/**
+ * Average colors of block textures, for blocks drawn as plain colored cubes.
+ * The average of each state's particle texture is computed once, then tinted like the block.
+ * Safe to use from mesher threads, and cleared on resource reload.
+ */
+@SideOnly(Side.CLIENT)
+public final class AverageBlockColors {
+
+    private static final Map<IBlockState, Integer> AVERAGES = new ConcurrentHashMap<>();
+
+    private AverageBlockColors() {
+    }
+
+    /**
+     * @return The opaque RGB color of a block, tinted for its position in the access
+     */
+    public static int get(IBlockState state, IBlockAccess access, BlockPos pos) {
+        int color = AVERAGES.computeIfAbsent(state, AverageBlockColors::average);
+
+        int tint = Minecraft.getMinecraft().getBlockColors().colorMultiplier(state, access, pos, 0);
+        if (tint == -1) return color;
+
+        int r = (color >> 16 & 255) * (tint >> 16 & 255) / 255;
+        int g = (color >> 8 & 255) * (tint >> 8 & 255) / 255;
+        int b = (color & 255) * (tint & 255) / 255;
+
+        return 0xFF000000 | r << 16 | g << 8 | b;
+    }
+
+    public static void clear() {
+        AVERAGES.clear();
+    }
+
+    @SuppressWarnings("deprecation")
+    private static int average(IBlockState state) {
+        TextureAtlasSprite sprite = Minecraft.getMinecraft().getBlockRendererDispatcher()
+            .getBlockModelShapes().getTexture(state);
+
+        // Some mods drop the pixels of sprites once uploaded, fall back to the map color then
+        int[][] frame = sprite.getFrameCount() > 0 ? sprite.getFrameTextureData(0) : null;
+        if (frame == null || frame.length == 0 || frame[0] == null) {
+            return 0xFF000000 | state.getMaterial().getMaterialMapColor().colorValue;
+        }
+
+        long r = 0, g = 0, b = 0;
+        int count = 0;
+
+        for (int pixel : frame[0]) {
+            // Skip (mostly) transparent pixels, such as the gaps of glass or plants
+            if ((pixel >>> 24) < 128) continue;
+
+            r += pixel >> 16 & 255;
+            g += pixel >> 8 & 255;
+            b += pixel & 255;
+            count++;
+        }
+
+        if (count == 0) return 0xFF000000 | state.getMaterial().getMaterialMapColor().colorValue;
+
+        return 0xFF000000 | (int) (r / count) << 16 | (int) (g / count) << 8 | (int) (b / count);
+    }
+}
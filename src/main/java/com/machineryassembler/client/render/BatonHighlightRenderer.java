@@ -8,12 +8,14 @@ import java.util.Iterator;
 import java.util.Map;
 
 import org.lwjgl.opengl.GL11;
+import org.lwjgl.opengl.GL14;
 
 import net.minecraft.client.Minecraft;
 import net.minecraft.client.renderer.BufferBuilder;
 import net.minecraft.client.renderer.GlStateManager;
-import net.minecraft.client.renderer.Tessellator;
+import net.minecraft.client.renderer.OpenGlHelper;
 import net.minecraft.client.renderer.vertex.DefaultVertexFormats;
+import net.minecraft.client.renderer.vertex.VertexBuffer;
 import net.minecraft.entity.player.EntityPlayer;
 import net.minecraft.item.ItemStack;
 import net.minecraft.util.EnumHand;
@@ -30,6 +32,9 @@ import com.machineryassembler.common.item.ItemAssemblerBaton;
 /**
  * Renders block highlight outlines for autobuild obstructions and placement issues.
  * Highlights are only visible when holding the Assembler's Baton.
+ * <p>
+ * The outlines are compiled into a vertex buffer when highlights are added, cleared or expire,
+ * and that buffer is drawn as it is every frame. The pulse is applied through the blend color.
  */
 @SideOnly(Side.CLIENT)
 public class BatonHighlightRenderer {
@@ -49,13 +54,29 @@ public class BatonHighlightRenderer {
         }
     }
 
+    // DefaultVertexFormats.POSITION_COLOR
+    private static final int STRIDE = 16;
+
     private static final Map<BlockPos, HighlightEntry> highlights = new HashMap<>();
 
+    // Compiled outlines, relative to bufferOrigin so far coordinates keep their precision as floats
+    private static VertexBuffer outlines = null;
+    private static int vertexCount = 0;
+    private static BlockPos bufferOrigin = BlockPos.ORIGIN;
+    private static boolean dirty = false;
+
+    // Earliest expiry among the highlights, so they are only scanned when one is due
+    private static long nextExpiry = Long.MAX_VALUE;
+
     /**
      * Add a block to be highlighted.
      */
     public static void addHighlight(BlockPos pos, HighlightType type, long durationMs) {
-        highlights.put(pos, new HighlightEntry(type, System.currentTimeMillis() + durationMs));
+        long expireTime = System.currentTimeMillis() + durationMs;
+
+        highlights.put(pos, new HighlightEntry(type, expireTime));
+        nextExpiry = Math.min(nextExpiry, expireTime);
+        dirty = true;
     }
 
     /**
@@ -67,6 +88,9 @@ public class BatonHighlightRenderer {
         for (BlockPos pos : positions) {
             highlights.put(pos, new HighlightEntry(type, expireTime));
         }
+
+        nextExpiry = Math.min(nextExpiry, expireTime);
+        dirty = true;
     }
 
     /**
@@ -74,6 +98,7 @@ public class BatonHighlightRenderer {
      */
     public static void addHighlight(BlockPos pos, HighlightType type) {
         highlights.put(pos, new HighlightEntry(type));
+        dirty = true;
     }
 
     /**
@@ -81,6 +106,7 @@ public class BatonHighlightRenderer {
      */
     public static void addHighlights(Iterable<BlockPos> positions, HighlightType type) {
         for (BlockPos pos : positions) highlights.put(pos, new HighlightEntry(type));
+        dirty = true;
     }
 
     /**
@@ -88,6 +114,8 @@ public class BatonHighlightRenderer {
      */
     public static void clearHighlights() {
         highlights.clear();
+        nextExpiry = Long.MAX_VALUE;
+        dirty = true;
     }
 
     /**
@@ -112,15 +140,10 @@ public class BatonHighlightRenderer {
         if (!isHoldingBaton(player)) return;
 
         long now = System.currentTimeMillis();
+        if (now > nextExpiry) removeExpired(now);
+        if (dirty) compile();
 
-        // Remove expired highlights
-        Iterator<Map.Entry<BlockPos, HighlightEntry>> iter = highlights.entrySet().iterator();
-        while (iter.hasNext()) {
-            long expireTime = iter.next().getValue().expireTime;
-            if (expireTime != -1 && expireTime < now) iter.remove();
-        }
-
-        if (highlights.isEmpty()) return;
+        if (vertexCount == 0) return;
 
         // Render
         double playerX = player.lastTickPosX + (player.posX - player.lastTickPosX) * event.getPartialTicks();
@@ -128,26 +151,33 @@ public class BatonHighlightRenderer {
         double playerZ = player.lastTickPosZ + (player.posZ - player.lastTickPosZ) * event.getPartialTicks();
 
         GlStateManager.pushMatrix();
-        GlStateManager.translate(-playerX, -playerY, -playerZ);
+        GlStateManager.translate(bufferOrigin.getX() - playerX, bufferOrigin.getY() - playerY, bufferOrigin.getZ() - playerZ);
 
         GlStateManager.disableTexture2D();
         GlStateManager.disableLighting();
         GlStateManager.enableBlend();
-        GlStateManager.blendFunc(GlStateManager.SourceFactor.SRC_ALPHA, GlStateManager.DestFactor.ONE_MINUS_SRC_ALPHA);
         GlStateManager.disableDepth();
         GlStateManager.depthMask(false);
         GlStateManager.glLineWidth(3.0F);
 
-        for (Map.Entry<BlockPos, HighlightEntry> entry : highlights.entrySet()) {
-            BlockPos pos = entry.getKey();
-            HighlightEntry highlight = entry.getValue();
-
-            // Calculate pulsing alpha
-            float alpha = 0.5f + 0.4f * (float) Math.sin(now / 400.0);
-
-            renderBlockOutline(pos, highlight.type.r, highlight.type.g, highlight.type.b, alpha);
-        }
-
+        // Pulsing alpha, the same for every highlight, so the compiled colors stay opaque
+        float alpha = 0.5f + 0.4f * (float) Math.sin(now / 400.0);
+        GL14.glBlendColor(0F, 0F, 0F, alpha);
+        GlStateManager.blendFunc(GL11.GL_CONSTANT_ALPHA, GL11.GL_ONE_MINUS_CONSTANT_ALPHA);
+
+        outlines.bindBuffer();
+        GlStateManager.glEnableClientState(GL11.GL_VERTEX_ARRAY);
+        GlStateManager.glEnableClientState(GL11.GL_COLOR_ARRAY);
+        GlStateManager.glVertexPointer(3, GL11.GL_FLOAT, STRIDE, 0);
+        GlStateManager.glColorPointer(4, GL11.GL_UNSIGNED_BYTE, STRIDE, 12);
+        GlStateManager.glDrawArrays(GL11.GL_LINES, 0, vertexCount);
+        OpenGlHelper.glBindBuffer(OpenGlHelper.GL_ARRAY_BUFFER, 0);
+        GlStateManager.glDisableClientState(GL11.GL_VERTEX_ARRAY);
+        GlStateManager.glDisableClientState(GL11.GL_COLOR_ARRAY);
+        GlStateManager.resetColor();
+
+        GL14.glBlendColor(0F, 0F, 0F, 0F);
+        Blending.DEFAULT.applyStateManager();
         GlStateManager.depthMask(true);
         GlStateManager.enableDepth();
         GlStateManager.disableBlend();
@@ -156,44 +186,75 @@ public class BatonHighlightRenderer {
         GlStateManager.popMatrix();
     }
 
-    private void renderBlockOutline(BlockPos pos, float red, float green, float blue, float alpha) {
-        AxisAlignedBB box = new AxisAlignedBB(pos).grow(0.002);
+    private static void removeExpired(long now) {
+        nextExpiry = Long.MAX_VALUE;
+
+        Iterator<Map.Entry<BlockPos, HighlightEntry>> iter = highlights.entrySet().iterator();
+        while (iter.hasNext()) {
+            long expireTime = iter.next().getValue().expireTime;
+            if (expireTime == -1) continue;
+
+            if (expireTime < now) {
+                iter.remove();
+                dirty = true;
+            } else {
+                nextExpiry = Math.min(nextExpiry, expireTime);
+            }
+        }
+    }
+
+    /**
+     * Build the outlines of all highlights into the vertex buffer.
+     */
+    private static void compile() {
+        dirty = false;
+        vertexCount = 0;
+        if (highlights.isEmpty()) return;
+
+        if (outlines == null) outlines = new VertexBuffer(DefaultVertexFormats.POSITION_COLOR);
+        bufferOrigin = highlights.keySet().iterator().next();
+
+        // 24 vertices per outline, so the builder doesn't grow step by step on large reports
+        BufferBuilder builder = new BufferBuilder(highlights.size() * 24 * STRIDE / 4);
+        builder.begin(GL11.GL_LINES, DefaultVertexFormats.POSITION_COLOR);
 
-        Tessellator tessellator = Tessellator.getInstance();
-        BufferBuilder buffer = tessellator.getBuffer();
+        for (Map.Entry<BlockPos, HighlightEntry> entry : highlights.entrySet()) {
+            HighlightType type = entry.getValue().type;
+
+            addBlockOutline(builder, entry.getKey().subtract(bufferOrigin), type.r, type.g, type.b, 1F);
+        }
+
+        builder.finishDrawing();
+        vertexCount = builder.getVertexCount();
+        outlines.bufferData(builder.getByteBuffer());
+    }
+
+    private static void addBlockOutline(BufferBuilder buffer, BlockPos pos, float red, float green, float blue, float alpha) {
+        AxisAlignedBB box = new AxisAlignedBB(pos).grow(0.002);
 
         // Bottom face
-        buffer.begin(GL11.GL_LINE_STRIP, DefaultVertexFormats.POSITION_COLOR);
-        buffer.pos(box.minX, box.minY, box.minZ).color(red, green, blue, alpha).endVertex();
-        buffer.pos(box.maxX, box.minY, box.minZ).color(red, green, blue, alpha).endVertex();
-        buffer.pos(box.maxX, box.minY, box.maxZ).color(red, green, blue, alpha).endVertex();
-        buffer.pos(box.minX, box.minY, box.maxZ).color(red, green, blue, alpha).endVertex();
-        buffer.pos(box.minX, box.minY, box.minZ).color(red, green, blue, alpha).endVertex();
-        tessellator.draw();
+        addEdge(buffer, box.minX, box.minY, box.minZ, box.maxX, box.minY, box.minZ, red, green, blue, alpha);
+        addEdge(buffer, box.maxX, box.minY, box.minZ, box.maxX, box.minY, box.maxZ, red, green, blue, alpha);
+        addEdge(buffer, box.maxX, box.minY, box.maxZ, box.minX, box.minY, box.maxZ, red, green, blue, alpha);
+        addEdge(buffer, box.minX, box.minY, box.maxZ, box.minX, box.minY, box.minZ, red, green, blue, alpha);
 
         // Top face
-        buffer.begin(GL11.GL_LINE_STRIP, DefaultVertexFormats.POSITION_COLOR);
-        buffer.pos(box.minX, box.maxY, box.minZ).color(red, green, blue, alpha).endVertex();
-        buffer.pos(box.maxX, box.maxY, box.minZ).color(red, green, blue, alpha).endVertex();
-        buffer.pos(box.maxX, box.maxY, box.maxZ).color(red, green, blue, alpha).endVertex();
-        buffer.pos(box.minX, box.maxY, box.maxZ).color(red, green, blue, alpha).endVertex();
-        buffer.pos(box.minX, box.maxY, box.minZ).color(red, green, blue, alpha).endVertex();
-        tessellator.draw();
+        addEdge(buffer, box.minX, box.maxY, box.minZ, box.maxX, box.maxY, box.minZ, red, green, blue, alpha);
+        addEdge(buffer, box.maxX, box.maxY, box.minZ, box.maxX, box.maxY, box.maxZ, red, green, blue, alpha);
+        addEdge(buffer, box.maxX, box.maxY, box.maxZ, box.minX, box.maxY, box.maxZ, red, green, blue, alpha);
+        addEdge(buffer, box.minX, box.maxY, box.maxZ, box.minX, box.maxY, box.minZ, red, green, blue, alpha);
 
         // Vertical edges
-        buffer.begin(GL11.GL_LINES, DefaultVertexFormats.POSITION_COLOR);
-        buffer.pos(box.minX, box.minY, box.minZ).color(red, green, blue, alpha).endVertex();
-        buffer.pos(box.minX, box.maxY, box.minZ).color(red, green, blue, alpha).endVertex();
-
-        buffer.pos(box.maxX, box.minY, box.minZ).color(red, green, blue, alpha).endVertex();
-        buffer.pos(box.maxX, box.maxY, box.minZ).color(red, green, blue, alpha).endVertex();
-
-        buffer.pos(box.maxX, box.minY, box.maxZ).color(red, green, blue, alpha).endVertex();
-        buffer.pos(box.maxX, box.maxY, box.maxZ).color(red, green, blue, alpha).endVertex();
+        addEdge(buffer, box.minX, box.minY, box.minZ, box.minX, box.maxY, box.minZ, red, green, blue, alpha);
+        addEdge(buffer, box.maxX, box.minY, box.minZ, box.maxX, box.maxY, box.minZ, red, green, blue, alpha);
+        addEdge(buffer, box.maxX, box.minY, box.maxZ, box.maxX, box.maxY, box.maxZ, red, green, blue, alpha);
+        addEdge(buffer, box.minX, box.minY, box.maxZ, box.minX, box.maxY, box.maxZ, red, green, blue, alpha);
+    }
 
-        buffer.pos(box.minX, box.minY, box.maxZ).color(red, green, blue, alpha).endVertex();
-        buffer.pos(box.minX, box.maxY, box.maxZ).color(red, green, blue, alpha).endVertex();
-        tessellator.draw();
+    private static void addEdge(BufferBuilder buffer, double x1, double y1, double z1, double x2, double y2, double z2,
+                                float red, float green, float blue, float alpha) {
+        buffer.pos(x1, y1, z1).color(red, green, blue, alpha).endVertex();
+        buffer.pos(x2, y2, z2).color(red, green, blue, alpha).endVertex();
     }
 
     private static class HighlightEntry {
@@ -3,6 +3,11 @@
 
 package com.machineryassembler.client.render;
 
+import java.util.BitSet;
+
+import it.unimi.dsi.fastutil.ints.Int2BooleanMap;
+import it.unimi.dsi.fastutil.ints.Int2BooleanOpenHashMap;
+
 import net.minecraft.block.Block;
 import net.minecraft.block.state.IBlockState;
 import net.minecraft.client.Minecraft;
@@ -17,14 +22,32 @@ import net.minecraftforge.fml.relauncher.SideOnly;
 /**
  * Utility class for validating block states for rendering.
  * Checks if a block state has a valid model/texture and can be rendered properly.
+ * <p>
+ * Results are cached by state id and by item/meta until {@link #clear()}, on resource reload.
+ * States without an id of their own (such as actual states) are checked every time.
+ * Only used from the client thread.
  */
 @SideOnly(Side.CLIENT)
 public final class BlockStateRenderValidator {
 
     private static IBakedModel missingModel = null;
 
+    private static final BitSet checkedStates = new BitSet();
+    private static final BitSet renderableStates = new BitSet();
+    private static final Int2BooleanMap renderableItems = new Int2BooleanOpenHashMap();
+
     private BlockStateRenderValidator() {}
 
+    /**
+     * Forget all results, such as when models were reloaded.
+     */
+    public static void clear() {
+        checkedStates.clear();
+        renderableStates.clear();
+        renderableItems.clear();
+        missingModel = null;
+    }
+
     /**
      * Check if a block state can be rendered properly (has a valid model).
      *
@@ -34,6 +57,18 @@ public final class BlockStateRenderValidator {
     public static boolean canRender(IBlockState state) {
         if (state == null || state.getBlock() == Blocks.AIR) return false;
 
+        int id = Block.getStateId(state);
+        if (Block.getStateById(id) != state) return checkModel(state);
+
+        if (!checkedStates.get(id)) {
+            renderableStates.set(id, checkModel(state));
+            checkedStates.set(id);
+        }
+
+        return renderableStates.get(id);
+    }
+
+    private static boolean checkModel(IBlockState state) {
         try {
             Minecraft mc = Minecraft.getMinecraft();
             if (mc.getBlockRendererDispatcher() == null) return true;
@@ -77,6 +112,16 @@ public final class BlockStateRenderValidator {
     public static boolean canRenderItem(ItemStack stack) {
         if (stack == null || stack.isEmpty()) return false;
 
+        int key = Item.getIdFromItem(stack.getItem()) << 16 | stack.getMetadata() & 0xFFFF;
+        if (renderableItems.containsKey(key)) return renderableItems.get(key);
+
+        boolean renderable = checkItemModel(stack);
+        renderableItems.put(key, renderable);
+
+        return renderable;
+    }
+
+    private static boolean checkItemModel(ItemStack stack) {
         try {
             Minecraft mc = Minecraft.getMinecraft();
             if (mc.getRenderItem() == null) return true;
@@ -5,34 +5,45 @@
 
 package com.machineryassembler.client.render;
 
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import javax.annotation.Nullable;
 
 import org.lwjgl.opengl.GL11;
 
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongIterator;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import it.unimi.dsi.fastutil.longs.LongSet;
+
 import net.minecraft.block.state.IBlockState;
 import net.minecraft.client.Minecraft;
-import net.minecraft.client.renderer.BlockRendererDispatcher;
-import net.minecraft.client.renderer.BufferBuilder;
-import net.minecraft.client.renderer.GLAllocation;
 import net.minecraft.client.renderer.GlStateManager;
-import net.minecraft.client.renderer.Tessellator;
+import net.minecraft.client.renderer.culling.Frustum;
+import net.minecraft.client.renderer.culling.ICamera;
 import net.minecraft.client.renderer.texture.TextureMap;
-import net.minecraft.client.renderer.vertex.DefaultVertexFormats;
-import net.minecraft.client.renderer.vertex.VertexFormat;
 import net.minecraft.entity.Entity;
 import net.minecraft.entity.player.EntityPlayer;
 import net.minecraft.init.Blocks;
 import net.minecraft.util.EnumFacing;
+import net.minecraft.util.math.AxisAlignedBB;
 import net.minecraft.util.math.BlockPos;
 import net.minecraft.util.math.MathHelper;
 import net.minecraft.util.math.Vec3d;
 import net.minecraft.util.text.TextComponentTranslation;
+import net.minecraft.world.IBlockAccess;
 import net.minecraft.world.World;
 import net.minecraftforge.fml.relauncher.Side;
 import net.minecraftforge.fml.relauncher.SideOnly;
 
+import com.machineryassembler.MachineryAssembler;
+import com.machineryassembler.common.config.AutobuildConfig;
 import com.machineryassembler.common.structure.BlockRequirement;
 import com.machineryassembler.common.structure.StructurePattern;
 
@@ -47,13 +58,42 @@ public class InWorldPreviewRenderer {
 
     private static final double DEFAULT_DISTANCE = 4.0;
 
-    private static int hash = -1;
-    private static int batchDList = -1;
+    /** Worker threads meshing preview sections off the render thread. */
+    private static final ExecutorService MESHER = Executors.newFixedThreadPool(2, runnable -> {
+        Thread thread = new Thread(runnable, "Machinery Assembler Preview Mesher");
+        thread.setDaemon(true);
+
+        return thread;
+    });
+
+    // Pattern positions and ghost meshes by section key, for the current rotation
+    private final Long2ObjectMap<List<BlockPos>> patternSections = new Long2ObjectOpenHashMap<>();
+    private final Long2ObjectMap<PreviewSection> sections = new Long2ObjectOpenHashMap<>();
+
+    // Sections to check against the world again before the next draw, meshed again if the blocks shown changed
+    private final LongSet dirtySections = new LongOpenHashSet();
+    // Dirty sections to mesh again even if the blocks shown are the same
+    private final LongSet staleSections = new LongOpenHashSet();
+    // Sections holding requirements with several samples, meshed again when the samples cycle
+    private final LongSet cyclingSections = new LongOpenHashSet();
+
+    // Which positions show a ghost block, to leave out enclosed ones
+    private PreviewOccupancy occupancy = null;
+
+    // What the meshes were built for. Meshes and the access are relative to the pattern,
+    // only which blocks are hidden depends on the world at the offset
+    private BlockPos meshOffset = null;
+    private long meshSampleCycle = -1;
+    private SampleBlockAccess meshAccess = null;
+    private int lastMeshRequest = 0;
 
     private StructureRenderHelper renderHelper = null;
     private StructurePattern matchArray = null;
     private BlockPos patternOffset = null;
 
+    // Clockwise quarter turns applied to matchArray since the preview started, sent with autobuild requests
+    private int rotation = 0;
+
     // Floating preview: offset stored as forward/right/up relative to player
     private int relativeForward = 0;
     private int relativeRight = 0;
@@ -109,6 +149,7 @@ public class InWorldPreviewRenderer {
 
         this.renderHelper = context.getRender();
         this.matchArray = context.getPattern();
+        this.rotation = 0;
         this.renderHelper.setSampleSnap(context.getShiftSnap());
         this.patternOffset = context.getMoveOffset();
         this.relativeForward = 0;
@@ -116,6 +157,7 @@ public class InWorldPreviewRenderer {
         this.relativeUp = 0;
         this.fixedPosition = null;
         this.showAllLayers = allLayers;
+        indexSections();
 
         // Calculate structure center for proper positioning and rotation
         BlockPos min = matchArray.getMin();
@@ -196,6 +238,7 @@ public class InWorldPreviewRenderer {
         );
 
         matchArray = matchArray.rotateYCCW();
+        rotation = (rotation + 3) & 3;
 
         // Recalculate center after rotation
         BlockPos min = matchArray.getMin();
@@ -214,12 +257,7 @@ public class InWorldPreviewRenderer {
             fixedPosition = oldWorldCenter.subtract(structureCenter);
         }
 
-        // Force display list rebuild
-        if (batchDList != -1) {
-            GLAllocation.deleteDisplayLists(batchDList);
-            batchDList = -1;
-            hash = -1;
-        }
+        indexSections();
 
         if (fixedPosition != null) updateLayers();
     }
@@ -242,6 +280,7 @@ public class InWorldPreviewRenderer {
         );
 
         matchArray = matchArray.rotateYCW();
+        rotation = (rotation + 1) & 3;
 
         // Recalculate center after rotation
         BlockPos min = matchArray.getMin();
@@ -260,12 +299,7 @@ public class InWorldPreviewRenderer {
             fixedPosition = oldWorldCenter.subtract(structureCenter);
         }
 
-        // Force display list rebuild
-        if (batchDList != -1) {
-            GLAllocation.deleteDisplayLists(batchDList);
-            batchDList = -1;
-            hash = -1;
-        }
+        indexSections();
 
         if (fixedPosition != null) updateLayers();
     }
@@ -338,6 +372,13 @@ public class InWorldPreviewRenderer {
         return fixedPosition != null;
     }
 
+    /**
+     * Get the clockwise quarter turns applied to the previewed structure, from 0 to 3.
+     */
+    public int getRotation() {
+        return rotation;
+    }
+
     /**
      * Get the fixed position, or null if floating.
      */
@@ -533,28 +574,51 @@ public class InWorldPreviewRenderer {
         double tx = entity.lastTickPosX + ((entity.posX - entity.lastTickPosX) * partialTicks);
         double ty = entity.lastTickPosY + ((entity.posY - entity.lastTickPosY) * partialTicks);
         double tz = entity.lastTickPosZ + ((entity.posZ - entity.lastTickPosZ) * partialTicks);
-        GlStateManager.translate(-tx, -ty, -tz);
+
+        // The frustum reads the camera's matrices, before any translation of ours
+        Frustum frustum = new Frustum();
+        frustum.setPosition(tx, ty, tz);
+        Vec3d camera = new Vec3d(tx, ty, tz);
 
         GlStateManager.color(1F, 1F, 1F, 1F);
 
-        if (batchDList == -1) {
-            batchBlocks();
-            hash = hashBlocks();
-        } else {
-            int currentHash = hashBlocks();
-            if (hash != currentHash) {
-                GLAllocation.deleteDisplayLists(batchDList);
-                batchBlocks();
-                hash = currentHash;
+        BlockPos move = getRenderOffset();
+        if (move != null) {
+            long sampleCycle = getSampleCycle();
+            if (sampleCycle != meshSampleCycle) {
+                meshSampleCycle = sampleCycle;
+                meshAccess = new SampleBlockAccess(matchArray.getPattern(), sampleCycle * BlockRequirement.CYCLE_TICK_SPEED);
+                markStale(cyclingSections);
             }
-        }
 
-        GlStateManager.disableDepth();
-        GlStateManager.enableBlend();
-        GlStateManager.blendFunc(GL11.GL_ONE_MINUS_DST_COLOR, GL11.GL_DST_COLOR);
-        GlStateManager.callList(batchDList);
-        Blending.DEFAULT.applyStateManager();
-        GlStateManager.enableDepth();
+            // Moving keeps the meshes, only which blocks match the world there has to be checked again
+            if (!move.equals(meshOffset)) {
+                meshOffset = move;
+                dirtySections.addAll(patternSections.keySet());
+            }
+
+            if (!dirtySections.isEmpty()) meshDirtySections(frustum, camera);
+
+            List<PreviewSection> visible = new ArrayList<>();
+
+            for (Long2ObjectMap.Entry<PreviewSection> entry : sections.long2ObjectEntrySet()) {
+                long key = entry.getLongKey();
+                PreviewSection section = entry.getValue();
+                if (!isSectionVisible(key, move, frustum, camera)) continue;
+
+                // Meshed again at the right level of detail next frame, drawn as it is meanwhile
+                if (section.isPendingLod() != isLodSection(key, move, camera)) markStale(key);
+                if (!section.isEmpty()) visible.add(section);
+            }
+
+            GlStateManager.disableDepth();
+            GlStateManager.enableBlend();
+            GlStateManager.blendFunc(GL11.GL_ONE_MINUS_DST_COLOR, GL11.GL_DST_COLOR);
+            drawSections(visible, false, move, camera);
+            drawSections(visible, true, move, camera);
+            Blending.DEFAULT.applyStateManager();
+            GlStateManager.enableDepth();
+        }
 
         GlStateManager.popMatrix();
 
@@ -563,96 +627,271 @@ public class InWorldPreviewRenderer {
         GL11.glColor4f(1F, 1F, 1F, 1F);
     }
 
-    private int hashBlocks() {
-        int hashValue = 80238287;
+    /**
+     * Mark the section holding a changed world block for rebuild, if the preview covers it.
+     */
+    void onBlockChanged(BlockPos pos) {
+        if (meshOffset == null) return;
 
-        if (renderHelper == null || Minecraft.getMinecraft().player == null) return hashValue;
+        long key = PreviewSection.keyOf(pos.subtract(meshOffset));
+        if (patternSections.containsKey(key)) dirtySections.add(key);
+    }
 
-        BlockPos move = getRenderOffset();
-        if (move == null) return hashValue;
+    /**
+     * Mark the sections overlapping a changed range of world blocks for rebuild, such as a loaded chunk.
+     */
+    void onRangeChanged(int x1, int y1, int z1, int x2, int y2, int z2) {
+        if (meshOffset == null) return;
 
-        StructurePattern render = new StructurePattern(matchArray, move);
-        long snapTick = renderHelper.getSampleSnap();
+        BlockPos min = new BlockPos(x1, y1, z1).subtract(meshOffset);
+        BlockPos max = new BlockPos(x2, y2, z2).subtract(meshOffset);
 
-        for (Map.Entry<BlockPos, BlockRequirement> entry : render.getPattern().entrySet()) {
-            BlockPos pos = entry.getKey();
-            BlockRequirement info = entry.getValue();
+        for (long key : patternSections.keySet()) {
+            BlockPos section = BlockPos.fromLong(key);
 
+            if (section.getX() >= min.getX() >> PreviewSection.SHIFT && section.getX() <= max.getX() >> PreviewSection.SHIFT
+                && section.getY() >= min.getY() >> PreviewSection.SHIFT && section.getY() <= max.getY() >> PreviewSection.SHIFT
+                && section.getZ() >= min.getZ() >> PreviewSection.SHIFT && section.getZ() <= max.getZ() >> PreviewSection.SHIFT) {
+                dirtySections.add(key);
+            }
+        }
+    }
+
+    /**
+     * Group the pattern's positions by section and drop the meshes, for a new pattern or rotation.
+     */
+    private void indexSections() {
+        deleteSections();
+
+        for (Map.Entry<BlockPos, BlockRequirement> entry : matchArray.getPattern().entrySet()) {
+            BlockPos relPos = entry.getKey();
+            long key = PreviewSection.keyOf(relPos);
+
+            patternSections.computeIfAbsent(key, k -> new ArrayList<>()).add(relPos);
+            if (entry.getValue().getSamples().size() > 1) cyclingSections.add(key);
+        }
+
+        occupancy = new PreviewOccupancy(matchArray.getMin(), matchArray.getMax());
+    }
+
+    private void markStale(long key) {
+        dirtySections.add(key);
+        staleSections.add(key);
+    }
+
+    private void markStale(LongSet keys) {
+        dirtySections.addAll(keys);
+        staleSections.addAll(keys);
+    }
+
+    private void markLayerDirty(int layer) {
+        for (long key : patternSections.keySet()) {
+            if (BlockPos.fromLong(key).getY() == layer >> PreviewSection.SHIFT) dirtySections.add(key);
+        }
+    }
+
+    /**
+     * @return The index of the sample each requirement currently shows
+     */
+    private long getSampleCycle() {
+        long snapTick = renderHelper.getSampleSnap();
+        if (snapTick == -1) {
             World world = Minecraft.getMinecraft().world;
-            if (world != null && info.matches(world, pos, false)) continue;
+            snapTick = world != null ? world.getTotalWorldTime() : 0;
+        }
+
+        return snapTick / BlockRequirement.CYCLE_TICK_SPEED;
+    }
+
+    /**
+     * Draw the sections of one pass, full models or level of detail.
+     */
+    private void drawSections(List<PreviewSection> visible, boolean lodPass, BlockPos move, Vec3d camera) {
+        PreviewSection.preDraw(lodPass);
+
+        for (PreviewSection section : visible) {
+            if (section.isLod() != lodPass) continue;
 
-            int layer = pos.subtract(move).getY();
-            if (fixedPosition != null && !showAllLayers && renderedLayer != layer) continue;
+            BlockPos origin = section.getOrigin().add(move);
 
-            IBlockState state = info.getSampleState(snapTick);
-            hashValue = (hashValue << 4) ^ (hashValue >> 28) ^ (pos.getX() * 5449 % 130651);
-            hashValue = (hashValue << 4) ^ (hashValue >> 28) ^ (pos.getY() * 5449 % 130651);
-            hashValue = (hashValue << 4) ^ (hashValue >> 28) ^ (pos.getZ() * 5449 % 130651);
-            hashValue = (hashValue << 4) ^ (hashValue >> 28) ^ (state.hashCode() * 5449 % 130651);
+            GlStateManager.pushMatrix();
+            GlStateManager.translate(origin.getX() - camera.x, origin.getY() - camera.y, origin.getZ() - camera.z);
+            section.draw();
+            GlStateManager.popMatrix();
         }
 
-        return hashValue % 75327403;
+        PreviewSection.postDraw(lodPass);
     }
 
-    private void batchBlocks() {
-        BlockPos move = getRenderOffset();
+    private AxisAlignedBB getSectionBox(long key, BlockPos move) {
+        BlockPos section = BlockPos.fromLong(key);
+        int minX = (section.getX() << PreviewSection.SHIFT) + move.getX();
+        int minY = (section.getY() << PreviewSection.SHIFT) + move.getY();
+        int minZ = (section.getZ() << PreviewSection.SHIFT) + move.getZ();
 
-        if (move == null || renderHelper == null) {
-            if (batchDList != -1) {
-                GlStateManager.glDeleteLists(batchDList, 1);
-                batchDList = -1;
-            }
-            return;
+        return new AxisAlignedBB(minX, minY, minZ,
+            minX + PreviewSection.SIZE, minY + PreviewSection.SIZE, minZ + PreviewSection.SIZE);
+    }
+
+    /**
+     * @return The squared distance from the camera to the closest point of a section
+     */
+    private double getSectionDistanceSq(long key, BlockPos move, Vec3d camera) {
+        AxisAlignedBB box = getSectionBox(key, move);
+        double dx = Math.max(0, Math.max(box.minX - camera.x, camera.x - box.maxX));
+        double dy = Math.max(0, Math.max(box.minY - camera.y, camera.y - box.maxY));
+        double dz = Math.max(0, Math.max(box.minZ - camera.z, camera.z - box.maxZ));
+
+        return dx * dx + dy * dy + dz * dz;
+    }
+
+    /**
+     * Check whether a section is in the camera's frustum and within the preview render distance.
+     */
+    private boolean isSectionVisible(long key, BlockPos move, ICamera frustum, Vec3d camera) {
+        if (!frustum.isBoundingBoxInFrustum(getSectionBox(key, move))) return false;
+
+        int maxDistance = AutobuildConfig.previewRenderDistance;
+
+        return maxDistance <= 0 || getSectionDistanceSq(key, move, camera) <= (double) maxDistance * maxDistance;
+    }
+
+    /**
+     * Check whether a section should be drawn as colored cubes: all of them for structures over the
+     * level of detail threshold, otherwise only those beyond the level of detail distance.
+     */
+    private boolean isLodSection(long key, BlockPos move, Vec3d camera) {
+        int threshold = AutobuildConfig.previewLodThreshold;
+        if (threshold > 0 && matchArray.getPattern().size() >= threshold) return true;
+
+        int lodDistance = AutobuildConfig.previewLodDistance;
+
+        return lodDistance > 0 && getSectionDistanceSq(key, move, camera) > (double) lodDistance * lodDistance;
+    }
+
+    /**
+     * Check the visible dirty sections against the world and queue those whose blocks shown changed,
+     * or whose mesh is stale, for meshing. Which of their blocks to show is decided here, as it reads
+     * the world, then the mesher threads render them against the access.
+     * Sections keep drawing their previous mesh until the new one is uploaded,
+     * and sections out of view stay dirty until they come into view.
+     */
+    private void meshDirtySections(ICamera frustum, Vec3d camera) {
+        World world = Minecraft.getMinecraft().world;
+        Map<BlockPos, BlockRequirement> pattern = matchArray.getPattern();
+        BlockPos move = meshOffset;
+        SampleBlockAccess access = meshAccess;
+        LongSet checked = new LongOpenHashSet();
+
+        for (LongIterator it = dirtySections.iterator(); it.hasNext(); ) {
+            long key = it.nextLong();
+            if (!isSectionVisible(key, move, frustum, camera)) continue;
+
+            it.remove();
+            if (patternSections.containsKey(key)) checked.add(key);
         }
 
-        batchDList = GLAllocation.generateDisplayLists(1);
-        GlStateManager.glNewList(batchDList, GL11.GL_COMPILE);
+        // Update the occupancy of all checked sections first, so they see each other's
+        LongSet meshed = new LongOpenHashSet();
+        LongSet occlusionChanged = new LongOpenHashSet();
 
-        Tessellator tes = Tessellator.getInstance();
-        BufferBuilder vb = tes.getBuffer();
-        StructurePattern matchPattern = matchArray;
+        for (long key : checked) {
+            if (staleSections.remove(key) || !sections.containsKey(key)) meshed.add(key);
 
-        DummyBlockAccess access = new DummyBlockAccess();
-        long snapTick = renderHelper.getSampleSnap();
+            for (BlockPos relPos : patternSections.get(key)) {
+                boolean shown = isGhostShown(relPos, move, pattern, access, world);
+                boolean occluding = shown && access.getBlockState(relPos).isOpaqueCube();
 
-        // Populate access with blocks
-        for (Map.Entry<BlockPos, BlockRequirement> entry : matchPattern.getPattern().entrySet()) {
-            BlockPos relPos = entry.getKey();
-            BlockPos worldPos = relPos.add(move);
-            IBlockState state = entry.getValue().getSampleState(snapTick);
-            access.setBlockState(worldPos, state);
+                if (shown != occupancy.isShown(relPos)) meshed.add(key);
+                if (occupancy.set(relPos, shown, occluding)) occlusionChanged.add(key);
+            }
         }
 
-        BlockRendererDispatcher brd = Minecraft.getMinecraft().getBlockRendererDispatcher();
-        VertexFormat blockFormat = DefaultVertexFormats.BLOCK;
+        // Neighbors meshed against the previous occupancy of these sections may hide too much or too little
+        for (long key : occlusionChanged) {
+            BlockPos sectionPos = BlockPos.fromLong(key);
+            meshed.add(key);
 
-        for (Map.Entry<BlockPos, BlockRequirement> entry : matchPattern.getPattern().entrySet()) {
-            BlockPos relPos = entry.getKey();
-            int layer = relPos.getY();
-            if (fixedPosition != null && !showAllLayers && renderedLayer != layer) continue;
+            for (EnumFacing facing : EnumFacing.VALUES) {
+                long neighbor = sectionPos.offset(facing).toLong();
+                if (!patternSections.containsKey(neighbor)) continue;
 
-            BlockPos worldPos = relPos.add(move);
-            BlockRequirement info = entry.getValue();
+                if (checked.contains(neighbor)) {
+                    meshed.add(neighbor);
+                } else {
+                    markStale(neighbor);
+                }
+            }
+        }
 
-            World world = Minecraft.getMinecraft().world;
-            if (world != null && info.matches(world, worldPos, false)) continue;
+        boolean hideEnclosed = AutobuildConfig.previewHideEnclosed;
 
-            IBlockState state = info.getSampleState(snapTick);
-            if (state.getBlock() == Blocks.AIR) continue;
+        for (long key : meshed) {
+            List<BlockPos> visible = new ArrayList<>();
 
-            IBlockState actualState = state.getBlock().getActualState(state, access, worldPos);
+            for (BlockPos relPos : patternSections.get(key)) {
+                if (!occupancy.isShown(relPos)) continue;
+                if (hideEnclosed && occupancy.isEnclosed(relPos)) continue;
 
-            GlStateManager.pushMatrix();
-            GlStateManager.translate(worldPos.getX(), worldPos.getY(), worldPos.getZ());
-            GlStateManager.translate(0.125, 0.125, 0.125);
-            GlStateManager.scale(0.75, 0.75, 0.75);
-            vb.begin(GL11.GL_QUADS, blockFormat);
-            brd.renderBlock(actualState, BlockPos.ORIGIN, access, vb);
-            tes.draw();
-            GlStateManager.popMatrix();
+                visible.add(relPos);
+            }
+
+            PreviewSection section = sections.get(key);
+            if (section == null) {
+                section = new PreviewSection(key);
+                sections.put(key, section);
+            }
+
+            PreviewSection target = section;
+            int request = ++lastMeshRequest;
+            boolean lod = isLodSection(key, move, camera);
+            target.setPendingRequest(request, lod);
+
+            MESHER.execute(() -> {
+                // Sections changing faster than they mesh, such as while moving, skip the requests already replaced
+                if (target.isOutdated(request)) return;
+
+                ByteBuffer data;
+
+                try {
+                    data = target.mesh(request, visible, access, lod);
+                } catch (RuntimeException e) {
+                    MachineryAssembler.LOGGER.error("Failed to mesh structure preview section", e);
+
+                    return;
+                }
+
+                if (data == null) return;
+
+                Minecraft.getMinecraft().addScheduledTask(() -> {
+                    // Dropped if the section was deleted or meshed again since
+                    if (sections.get(key) == target && target.getPendingRequest() == request) target.upload(data, lod);
+                });
+            });
         }
+    }
 
-        GlStateManager.glEndList();
+    private boolean isGhostShown(BlockPos relPos, BlockPos move, Map<BlockPos, BlockRequirement> pattern,
+                                 IBlockAccess access, @Nullable World world) {
+        if (fixedPosition != null && !showAllLayers && renderedLayer != relPos.getY()) return false;
+
+        if (access.getBlockState(relPos).getBlock() == Blocks.AIR) return false;
+
+        return world == null || !pattern.get(relPos).matches(world, relPos.add(move), false);
+    }
+
+    private void deleteSections() {
+        for (PreviewSection section : sections.values()) section.delete();
+
+        sections.clear();
+        patternSections.clear();
+        dirtySections.clear();
+        staleSections.clear();
+        cyclingSections.clear();
+        occupancy = null;
+        meshOffset = null;
+        meshSampleCycle = -1;
+        meshAccess = null;
     }
 
     @Nullable
@@ -690,23 +929,32 @@ public class InWorldPreviewRenderer {
     }
 
     private void updateLayers() {
-        renderedLayer = -1;
+        int layer = findRenderedLayer();
+        if (layer == renderedLayer) return;
 
-        if (fixedPosition == null) return;
+        markLayerDirty(renderedLayer);
+        markLayerDirty(layer);
+        renderedLayer = layer;
+    }
+
+    /**
+     * @return The lowest layer not yet placed, or -1
+     */
+    private int findRenderedLayer() {
+        if (fixedPosition == null) return -1;
 
         int lowestSlice = matchArray.getMin().getY();
         int maxSlice = matchArray.getMax().getY();
 
         for (int y = lowestSlice; y <= maxSlice; y++) {
-            if (!doesPlacedLayerMatch(y)) {
-                renderedLayer = y;
-
-                return;
-            }
+            if (!doesPlacedLayerMatch(y)) return y;
         }
+
+        return -1;
     }
 
     private void clearSelection() {
+        deleteSections();
         renderHelper = null;
         matchArray = null;
         patternOffset = null;
@@ -721,4 +969,36 @@ public class InWorldPreviewRenderer {
     public void unloadWorld() {
         clearSelection();
     }
+
+    /**
+     * The pattern's sample states at one point of their cycle, by position within the pattern.
+     * Shared with the mesher threads, it reads the preview's own copy of the pattern, which is never modified.
+     */
+    private static class SampleBlockAccess extends DummyBlockAccess {
+
+        private final Map<BlockPos, BlockRequirement> pattern;
+        private final long snapTick;
+
+        SampleBlockAccess(Map<BlockPos, BlockRequirement> pattern, long snapTick) {
+            this.pattern = pattern;
+            this.snapTick = snapTick;
+        }
+
+        @Override
+        public IBlockState getBlockState(BlockPos pos) {
+            BlockRequirement requirement = pattern.get(pos);
+
+            return requirement != null ? requirement.getSampleState(snapTick) : Blocks.AIR.getDefaultState();
+        }
+
+        @Override
+        public boolean isAirBlock(BlockPos pos) {
+            return getBlockState(pos).getBlock() == Blocks.AIR;
+        }
+
+        @Override
+        public boolean hasBlockAt(BlockPos pos) {
+            return pattern.containsKey(pos);
+        }
+    }
 }
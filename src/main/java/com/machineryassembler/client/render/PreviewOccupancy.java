@@ -0,0 +1,84 @@
+// SPDX-License-Identifier: GPL-3.0-or-later
+// SPDX-FileCopyrightText: 2026 Machinery Assembler Contributors
+
+package com.machineryassembler.client.render;
+
+import java.util.BitSet;
+
+import net.minecraft.util.EnumFacing;
+import net.minecraft.util.math.BlockPos;
+import net.minecraftforge.fml.relauncher.Side;
+import net.minecraftforge.fml.relauncher.SideOnly;
+
+
+/**
+ * Occupancy grid of a preview over its pattern's bounding box: which positions show a ghost block,
+ * and which of those are opaque cubes hiding their neighbors.
+ * <p>
+ * Ghost blocks whose six neighbors are all opaque ghost blocks are enclosed, and left out of the meshes,
+ * so solid structures only mesh their outer shell. Positions are updated section by section as they are checked
+ * against the world; the grid is kept when the preview moves, so sections out of view keep their previous state
+ * until they come into view again.
+ */
+@SideOnly(Side.CLIENT)
+class PreviewOccupancy {
+
+    private final BlockPos min;
+    private final int sizeX;
+    private final int sizeY;
+    private final int sizeZ;
+
+    private final BitSet shown = new BitSet();
+    private final BitSet occluding = new BitSet();
+
+    PreviewOccupancy(BlockPos min, BlockPos max) {
+        this.min = min;
+        this.sizeX = max.getX() - min.getX() + 1;
+        this.sizeY = max.getY() - min.getY() + 1;
+        this.sizeZ = max.getZ() - min.getZ() + 1;
+    }
+
+    private int indexOf(BlockPos relPos) {
+        int x = relPos.getX() - min.getX();
+        int y = relPos.getY() - min.getY();
+        int z = relPos.getZ() - min.getZ();
+
+        if (x < 0 || y < 0 || z < 0 || x >= sizeX || y >= sizeY || z >= sizeZ) return -1;
+
+        return (y * sizeZ + z) * sizeX + x;
+    }
+
+    /**
+     * Update a position of the pattern.
+     *
+     * @return true if whether it hides its neighbors changed
+     */
+    boolean set(BlockPos relPos, boolean isShown, boolean isOccluding) {
+        int index = indexOf(relPos);
+        if (index == -1) return false;
+
+        shown.set(index, isShown);
+        boolean changed = occluding.get(index) != isOccluding;
+        occluding.set(index, isOccluding);
+
+        return changed;
+    }
+
+    boolean isShown(BlockPos relPos) {
+        int index = indexOf(relPos);
+
+        return index != -1 && shown.get(index);
+    }
+
+    /**
+     * @return true if all six neighbors of the position are opaque ghost blocks
+     */
+    boolean isEnclosed(BlockPos relPos) {
+        for (EnumFacing facing : EnumFacing.VALUES) {
+            int index = indexOf(relPos.offset(facing));
+            if (index == -1 || !occluding.get(index)) return false;
+        }
+
+        return true;
+    }
+}
@@ -0,0 +1,289 @@
+// SPDX-License-Identifier: GPL-3.0-or-later
+// SPDX-FileCopyrightText: 2026 Machinery Assembler Contributors
+
+package com.machineryassembler.client.render;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+
+import javax.annotation.Nullable;
+
+import org.lwjgl.opengl.GL11;
+
+import net.minecraft.block.state.IBlockState;
+import net.minecraft.client.Minecraft;
+import net.minecraft.client.renderer.BlockRendererDispatcher;
+import net.minecraft.client.renderer.BufferBuilder;
+import net.minecraft.client.renderer.GLAllocation;
+import net.minecraft.client.renderer.GlStateManager;
+import net.minecraft.client.renderer.OpenGlHelper;
+import net.minecraft.client.renderer.vertex.DefaultVertexFormats;
+import net.minecraft.client.renderer.vertex.VertexBuffer;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.IBlockAccess;
+import net.minecraftforge.fml.relauncher.Side;
+import net.minecraftforge.fml.relauncher.SideOnly;
+
+
+/**
+ * Ghost mesh of the preview blocks within one 16^3 section of a structure, held in a vertex buffer.
+ * Vertices are relative to the section's origin with the ghost inset already applied,
+ * so drawing a section takes a translation and a single draw call.
+ * <p>
+ * Distant sections may be meshed at a lower level of detail instead, as untextured cubes of each block's
+ * average color, drawn in their own pass.
+ */
+@SideOnly(Side.CLIENT)
+class PreviewSection {
+
+    static final int SHIFT = 4;
+    static final int SIZE = 1 << SHIFT;
+
+    // Ghost blocks are shrunk to 3/4 around their center
+    private static final float SCALE = 0.75F;
+    private static final float INSET = (1 - SCALE) / 2;
+
+    // DefaultVertexFormats.BLOCK: position, color, texture, lightmap
+    private static final int STRIDE = 28;
+
+    // DefaultVertexFormats.POSITION_COLOR, for level of detail meshes
+    private static final int LOD_STRIDE = 16;
+
+    // Corners of each face of a cube, counter-clockwise from outside, in EnumFacing order (0 = min, 1 = max)
+    private static final int[][][] FACES = {
+        {{0, 0, 1}, {0, 0, 0}, {1, 0, 0}, {1, 0, 1}},
+        {{0, 1, 0}, {0, 1, 1}, {1, 1, 1}, {1, 1, 0}},
+        {{1, 1, 0}, {1, 0, 0}, {0, 0, 0}, {0, 1, 0}},
+        {{0, 1, 1}, {0, 0, 1}, {1, 0, 1}, {1, 1, 1}},
+        {{0, 1, 0}, {0, 0, 0}, {0, 0, 1}, {0, 1, 1}},
+        {{1, 1, 1}, {1, 0, 1}, {1, 0, 0}, {1, 1, 0}}
+    };
+
+    // Vanilla's directional shading, so the faces of untextured cubes stay distinguishable
+    private static final float[] FACE_SHADES = {0.5F, 1.0F, 0.8F, 0.8F, 0.6F, 0.6F};
+
+    // One builder per mesher thread, only its finished content leaves the thread
+    private static final ThreadLocal<BufferBuilder> BUILDERS = ThreadLocal.withInitial(() -> new BufferBuilder(0x40000));
+
+    private final BlockPos origin;
+    private final VertexBuffer buffer = new VertexBuffer(DefaultVertexFormats.BLOCK);
+    // Counted by the uploaded mesh's own stride
+    private int vertexCount = 0;
+    private boolean lod = false;
+
+    // Latest mesh requested for this section, older ones are skipped by mesher threads or dropped on upload
+    private volatile int pendingRequest = 0;
+    private boolean pendingLod = false;
+
+    PreviewSection(long key) {
+        BlockPos section = BlockPos.fromLong(key);
+        this.origin = new BlockPos(section.getX() << SHIFT, section.getY() << SHIFT, section.getZ() << SHIFT);
+    }
+
+    /**
+     * @return The key of the section holding a position of the pattern
+     */
+    static long keyOf(BlockPos relPos) {
+        return new BlockPos(relPos.getX() >> SHIFT, relPos.getY() >> SHIFT, relPos.getZ() >> SHIFT).toLong();
+    }
+
+    /**
+     * @return The position of the section's lowest corner within the pattern
+     */
+    BlockPos getOrigin() {
+        return origin;
+    }
+
+    int getPendingRequest() {
+        return pendingRequest;
+    }
+
+    /**
+     * @return Whether the latest mesh requested is a level of detail one
+     */
+    boolean isPendingLod() {
+        return pendingLod;
+    }
+
+    void setPendingRequest(int pendingRequest, boolean pendingLod) {
+        this.pendingRequest = pendingRequest;
+        this.pendingLod = pendingLod;
+    }
+
+    /**
+     * @return Whether a mesh requested since, or the section's deletion, made a request outdated
+     */
+    boolean isOutdated(int request) {
+        return pendingRequest != request;
+    }
+
+    /**
+     * Mesh ghost blocks into a copy of their vertex data, ready to {@link #upload}.
+     * Runs on a mesher thread: the access must not change while meshing.
+     *
+     * @param request   The request being meshed
+     * @param positions The positions of the blocks within the pattern
+     * @param access    The pattern's blocks, by position within the pattern
+     * @param lod       Whether to mesh the blocks as colored cubes rather than their models
+     * @return The vertex data, or null if the request became outdated while meshing
+     */
+    @Nullable
+    ByteBuffer mesh(int request, List<BlockPos> positions, IBlockAccess access, boolean lod) {
+        BufferBuilder builder = BUILDERS.get();
+        BlockRendererDispatcher brd = Minecraft.getMinecraft().getBlockRendererDispatcher();
+
+        builder.begin(GL11.GL_QUADS, lod ? DefaultVertexFormats.POSITION_COLOR : DefaultVertexFormats.BLOCK);
+
+        for (BlockPos relPos : positions) {
+            IBlockState state = access.getBlockState(relPos);
+
+            if (lod) {
+                addLodBlock(builder, AverageBlockColors.get(state, access, relPos), relPos);
+            } else {
+                IBlockState actualState = state.getBlock().getActualState(state, access, relPos);
+                addGhostBlock(builder, brd, actualState, relPos, access);
+            }
+        }
+
+        builder.finishDrawing();
+
+        if (isOutdated(request)) {
+            builder.reset();
+
+            return null;
+        }
+
+        ByteBuffer data = GLAllocation.createDirectByteBuffer(builder.getByteBuffer().limit());
+        data.put(builder.getByteBuffer());
+        data.flip();
+        builder.reset();
+
+        return data;
+    }
+
+    /**
+     * Render one ghost block into a buffer begun with {@link DefaultVertexFormats#BLOCK}.
+     * The block is rendered at {@link BlockPos#ORIGIN}, so none of its faces are culled by the access,
+     * then its vertices are shrunk and moved to its position within the section.
+     *
+     * @param relPos The block's position within the pattern
+     */
+    private void addGhostBlock(BufferBuilder builder, BlockRendererDispatcher brd, IBlockState state, BlockPos relPos,
+                               IBlockAccess access) {
+        int start = builder.getVertexCount();
+        brd.renderBlock(state, BlockPos.ORIGIN, access, builder);
+        int end = builder.getVertexCount();
+
+        float dx = relPos.getX() - origin.getX() + INSET;
+        float dy = relPos.getY() - origin.getY() + INSET;
+        float dz = relPos.getZ() - origin.getZ() + INSET;
+
+        // The buffer may have grown while rendering, fetch it afterwards
+        ByteBuffer bytes = builder.getByteBuffer();
+
+        for (int i = start; i < end; i++) {
+            int offset = i * STRIDE;
+            bytes.putFloat(offset, bytes.getFloat(offset) * SCALE + dx);
+            bytes.putFloat(offset + 4, bytes.getFloat(offset + 4) * SCALE + dy);
+            bytes.putFloat(offset + 8, bytes.getFloat(offset + 8) * SCALE + dz);
+        }
+    }
+
+    /**
+     * Add an untextured cube of the block's color, with the same inset as ghost blocks.
+     */
+    private void addLodBlock(BufferBuilder builder, int color, BlockPos relPos) {
+        float[] min = {
+            relPos.getX() - origin.getX() + INSET,
+            relPos.getY() - origin.getY() + INSET,
+            relPos.getZ() - origin.getZ() + INSET
+        };
+        int r = color >> 16 & 255;
+        int g = color >> 8 & 255;
+        int b = color & 255;
+
+        for (int face = 0; face < FACES.length; face++) {
+            float shade = FACE_SHADES[face];
+
+            for (int[] corner : FACES[face]) {
+                builder.pos(min[0] + corner[0] * SCALE, min[1] + corner[1] * SCALE, min[2] + corner[2] * SCALE)
+                    .color((int) (r * shade), (int) (g * shade), (int) (b * shade), 255)
+                    .endVertex();
+            }
+        }
+    }
+
+    /**
+     * Upload a mesh, replacing the previous one. Runs on the render thread.
+     *
+     * @param lod Whether the mesh is a level of detail one
+     */
+    void upload(ByteBuffer data, boolean lod) {
+        this.lod = lod;
+        vertexCount = data.limit() / (lod ? LOD_STRIDE : STRIDE);
+        buffer.bufferData(data);
+    }
+
+    boolean isEmpty() {
+        return vertexCount == 0;
+    }
+
+    /**
+     * @return Whether the uploaded mesh is a level of detail one, drawn in the level of detail pass
+     */
+    boolean isLod() {
+        return lod;
+    }
+
+    /**
+     * Draw the mesh, between {@link #preDraw} and {@link #postDraw} for its pass,
+     * translated to the section's origin.
+     */
+    void draw() {
+        if (vertexCount == 0) return;
+
+        buffer.bindBuffer();
+
+        if (lod) {
+            GlStateManager.glVertexPointer(3, GL11.GL_FLOAT, LOD_STRIDE, 0);
+            GlStateManager.glColorPointer(4, GL11.GL_UNSIGNED_BYTE, LOD_STRIDE, 12);
+        } else {
+            RenderingUtils.setBlockArrayPointers();
+        }
+
+        // The buffer counts vertices by the BLOCK format's stride, which level of detail meshes don't use
+        GlStateManager.glDrawArrays(GL11.GL_QUADS, 0, vertexCount);
+    }
+
+    void delete() {
+        buffer.deleteGlBuffers();
+        vertexCount = 0;
+        pendingRequest = 0;
+    }
+
+    static void preDraw(boolean lodPass) {
+        if (!lodPass) {
+            RenderingUtils.enableBlockArrays();
+
+            return;
+        }
+
+        GlStateManager.glEnableClientState(GL11.GL_VERTEX_ARRAY);
+        GlStateManager.glEnableClientState(GL11.GL_COLOR_ARRAY);
+        GlStateManager.disableTexture2D();
+    }
+
+    static void postDraw(boolean lodPass) {
+        if (!lodPass) {
+            RenderingUtils.disableBlockArrays();
+
+            return;
+        }
+
+        OpenGlHelper.glBindBuffer(OpenGlHelper.GL_ARRAY_BUFFER, 0);
+        GlStateManager.glDisableClientState(GL11.GL_VERTEX_ARRAY);
+        GlStateManager.glDisableClientState(GL11.GL_COLOR_ARRAY);
+        GlStateManager.enableTexture2D();
+        GlStateManager.resetColor();
+    }
+}
@@ -14,6 +14,7 @@ import net.minecraft.client.Minecraft;
 import net.minecraft.client.gui.FontRenderer;
 import net.minecraft.client.renderer.BufferBuilder;
 import net.minecraft.client.renderer.GlStateManager;
+import net.minecraft.client.renderer.OpenGlHelper;
 import net.minecraft.client.renderer.RenderHelper;
 import net.minecraft.client.renderer.RenderItem;
 import net.minecraft.client.renderer.Tessellator;
@@ -139,4 +140,44 @@ public class RenderingUtils {
 
         return new double[] {x, y, z};
     }
+
+    /**
+     * Enable the client arrays used by {@link DefaultVertexFormats#BLOCK} vertex buffers.
+     */
+    public static void enableBlockArrays() {
+        GlStateManager.glEnableClientState(GL11.GL_VERTEX_ARRAY);
+        GlStateManager.glEnableClientState(GL11.GL_COLOR_ARRAY);
+        GlStateManager.glEnableClientState(GL11.GL_TEXTURE_COORD_ARRAY);
+        OpenGlHelper.setClientActiveTexture(OpenGlHelper.lightmapTexUnit);
+        GlStateManager.glEnableClientState(GL11.GL_TEXTURE_COORD_ARRAY);
+        OpenGlHelper.setClientActiveTexture(OpenGlHelper.defaultTexUnit);
+    }
+
+    /**
+     * Point the client arrays at the bound {@link DefaultVertexFormats#BLOCK} vertex buffer.
+     */
+    public static void setBlockArrayPointers() {
+        int stride = DefaultVertexFormats.BLOCK.getSize();
+
+        GlStateManager.glVertexPointer(3, GL11.GL_FLOAT, stride, 0);
+        GlStateManager.glColorPointer(4, GL11.GL_UNSIGNED_BYTE, stride, 12);
+        GlStateManager.glTexCoordPointer(2, GL11.GL_FLOAT, stride, 16);
+        OpenGlHelper.setClientActiveTexture(OpenGlHelper.lightmapTexUnit);
+        GlStateManager.glTexCoordPointer(2, GL11.GL_SHORT, stride, 24);
+        OpenGlHelper.setClientActiveTexture(OpenGlHelper.defaultTexUnit);
+    }
+
+    /**
+     * Unbind the vertex buffer and disable the client arrays enabled by {@link #enableBlockArrays()}.
+     */
+    public static void disableBlockArrays() {
+        OpenGlHelper.glBindBuffer(OpenGlHelper.GL_ARRAY_BUFFER, 0);
+        GlStateManager.glDisableClientState(GL11.GL_VERTEX_ARRAY);
+        GlStateManager.glDisableClientState(GL11.GL_COLOR_ARRAY);
+        GlStateManager.glDisableClientState(GL11.GL_TEXTURE_COORD_ARRAY);
+        OpenGlHelper.setClientActiveTexture(OpenGlHelper.lightmapTexUnit);
+        GlStateManager.glDisableClientState(GL11.GL_TEXTURE_COORD_ARRAY);
+        OpenGlHelper.setClientActiveTexture(OpenGlHelper.defaultTexUnit);
+        GlStateManager.resetColor();
+    }
 }
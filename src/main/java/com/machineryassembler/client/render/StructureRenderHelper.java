@@ -6,7 +6,9 @@
 package com.machineryassembler.client.render;
 
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 
 import javax.annotation.Nullable;
@@ -26,6 +28,7 @@ import net.minecraft.client.renderer.texture.TextureMap;
 import net.minecraft.client.renderer.tileentity.TileEntityRendererDispatcher;
 import net.minecraft.client.renderer.tileentity.TileEntitySpecialRenderer;
 import net.minecraft.client.renderer.vertex.DefaultVertexFormats;
+import net.minecraft.client.renderer.vertex.VertexBuffer;
 import net.minecraft.client.renderer.vertex.VertexFormat;
 import net.minecraft.init.Blocks;
 import net.minecraft.nbt.NBTTagCompound;
@@ -49,6 +52,24 @@ import com.machineryassembler.common.structure.StructurePattern;
 @SideOnly(Side.CLIENT)
 public class StructureRenderHelper {
 
+    /** Compiled block geometry kept across all helpers, the least recently drawn is dropped first. */
+    private static final int MAX_CACHED_GEOMETRY = 32;
+
+    /** Cycles of more sample phases than this are not wrapped around, each phase is compiled as it comes. */
+    private static final int MAX_PHASE_COUNT = 64;
+
+    private static final Map<GeometryKey, CompiledGeometry> GEOMETRY_CACHE =
+        new LinkedHashMap<GeometryKey, CompiledGeometry>(16, 0.75F, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<GeometryKey, CompiledGeometry> eldest) {
+                if (size() <= MAX_CACHED_GEOMETRY) return false;
+
+                eldest.getValue().delete();
+
+                return true;
+            }
+        };
+
     private final StructurePattern pattern;
     private final DummyBlockAccess renderAccess;
     private final Map<BlockPos, RenderData> renderDataMap = new HashMap<>();
@@ -62,6 +83,9 @@ public class StructureRenderHelper {
 
     private long sampleSnap = -1;
 
+    // Sample phases before every requirement shows its first sample again, 0 if more than MAX_PHASE_COUNT
+    private int phaseCount = 1;
+
     public StructureRenderHelper(StructurePattern pattern) {
         this.pattern = pattern;
         this.renderAccess = new DummyBlockAccess();
@@ -78,9 +102,40 @@ public class StructureRenderHelper {
             BlockRequirement info = entry.getValue();
             RenderData data = new RenderData(info);
             renderDataMap.put(pos, data);
+
+            if (phaseCount > 0 && !info.getSamples().isEmpty()) {
+                int samples = info.getSamples().size();
+                long lcm = (long) phaseCount / gcd(phaseCount, samples) * samples;
+                phaseCount = lcm <= MAX_PHASE_COUNT ? (int) lcm : 0;
+            }
         }
     }
 
+    private static int gcd(int a, int b) {
+        return b == 0 ? a : gcd(b, a % b);
+    }
+
+    /**
+     * @return The sample phase currently shown, the same for all frames showing the same samples
+     */
+    private long getSamplePhase() {
+        long tick = sampleSnap;
+        if (tick == -1) tick = Minecraft.getMinecraft().world != null ? Minecraft.getMinecraft().world.getTotalWorldTime() : 0;
+
+        long phase = tick / BlockRequirement.CYCLE_TICK_SPEED;
+
+        return phaseCount > 0 ? phase % phaseCount : phase;
+    }
+
+    /**
+     * Drop all compiled geometry, such as when the block atlas was rebuilt.
+     */
+    public static void clearGeometryCache() {
+        for (CompiledGeometry geometry : GEOMETRY_CACHE.values()) geometry.delete();
+
+        GEOMETRY_CACHE.clear();
+    }
+
     public void resetRotation() {
         this.rotX = -30;
         this.rotY = 45;
@@ -186,46 +241,81 @@ public class StructureRenderHelper {
 
         GL11.glScaled(-size * mul, -size * mul, -size * mul);
 
-        // Update render access with current sample states
-        updateRenderAccess(slice.orElse(null));
+        drawBlocks(slice, pTicks);
 
-        BlockRendererDispatcher brd = Minecraft.getMinecraft().getBlockRendererDispatcher();
-        VertexFormat blockFormat = DefaultVertexFormats.BLOCK;
+        GL11.glPopMatrix();
+        GL11.glPopAttrib();
+    }
 
-        Minecraft.getMinecraft().renderEngine.bindTexture(TextureMap.LOCATION_BLOCKS_TEXTURE);
-        Tessellator tes = Tessellator.getInstance();
-        BufferBuilder vb = tes.getBuffer();
+    /**
+     * Render the whole structure at the default GUI angle, fitted into the current viewport.
+     * Sets up its own projection, for rendering outside of GUIs such as into thumbnails.
+     */
+    public void renderIsometric(float pTicks) {
+        BlockPos max = pattern.getMax();
+        BlockPos min = pattern.getMin();
 
-        // Render blocks
-        vb.begin(GL11.GL_QUADS, blockFormat);
-        for (Map.Entry<BlockPos, RenderData> entry : renderDataMap.entrySet()) {
-            BlockPos pos = entry.getKey();
-            if (slice.isPresent() && slice.get() != pos.getY()) continue;
+        int dx = max.getX() - min.getX() + 1;
+        int dy = max.getY() - min.getY() + 1;
+        int dz = max.getZ() - min.getZ() + 1;
 
-            RenderData data = entry.getValue();
-            IBlockState state = data.getSampleState(sampleSnap);
-            if (state == null || state.getBlock() == Blocks.AIR) continue;
+        // Fits the bounding box whatever the angle
+        double radius = Math.sqrt(dx * dx + dy * dy + dz * dz) / 2;
 
-            // Skip states with missing models to avoid purple/black checkerboard textures
-            // But allow fluid blocks which render differently
-            boolean isFluid = state.getBlock() instanceof BlockLiquid || state.getBlock() instanceof IFluidBlock;
-            if (!isFluid && !BlockStateRenderValidator.canRender(state)) continue;
+        GL11.glPushAttrib(GL11.GL_ALL_ATTRIB_BITS);
+        GL11.glMatrixMode(GL11.GL_PROJECTION);
+        GL11.glPushMatrix();
+        GL11.glLoadIdentity();
+        GL11.glOrtho(-radius, radius, -radius, radius, -radius, radius);
+        GL11.glMatrixMode(GL11.GL_MODELVIEW);
+        GL11.glPushMatrix();
+        GL11.glLoadIdentity();
 
-            try {
-                IBlockState actualState = state.getBlock().getActualState(state, renderAccess, pos);
+        GL11.glEnable(GL11.GL_DEPTH_TEST);
 
-                if (isFluid) {
-                    // Fluids are rendered through the normal block renderer as well
-                    // The BlockRendererDispatcher handles BlockLiquid specially via BlockModelRenderer
-                    brd.renderBlock(actualState, pos, renderAccess, vb);
-                } else {
-                    brd.renderBlock(actualState, pos, renderAccess, vb);
-                }
-            } catch (Exception ignored) {
-                // Some blocks fail to render in fake world context - silently skip
-            }
+        // Same view as resetRotation(): GUIs flip Y in their projection and mirror the structure in render3DGUI
+        GL11.glRotated(180, 0, 1, 0);
+        GL11.glRotated(-30, 1, 0, 0);
+        GL11.glRotated(45, 0, 1, 0);
+        GL11.glTranslated(-(min.getX() + max.getX() + 1) / 2.0, -(min.getY() + max.getY() + 1) / 2.0,
+            -(min.getZ() + max.getZ() + 1) / 2.0);
+
+        drawBlocks(Optional.empty(), pTicks);
+
+        GL11.glPopMatrix();
+        GL11.glMatrixMode(GL11.GL_PROJECTION);
+        GL11.glPopMatrix();
+        GL11.glMatrixMode(GL11.GL_MODELVIEW);
+        GL11.glPopAttrib();
+    }
+
+    /**
+     * Drop the compiled geometry of this helper, once it won't be drawn anymore.
+     */
+    public void releaseGeometry() {
+        GEOMETRY_CACHE.entrySet().removeIf(entry -> {
+            if (entry.getKey().helper != this) return false;
+
+            entry.getValue().delete();
+
+            return true;
+        });
+    }
+
+    /**
+     * Draw the blocks and tile entities with the current transformation.
+     */
+    private void drawBlocks(Optional<Integer> slice, float pTicks) {
+        // Blocks only change with the samples shown and the slice, the view is all in the matrix
+        GeometryKey key = new GeometryKey(this, getSamplePhase(), slice.orElse(null));
+        CompiledGeometry geometry = GEOMETRY_CACHE.get(key);
+        if (geometry == null) {
+            geometry = compileBlocks(slice.orElse(null));
+            GEOMETRY_CACHE.put(key, geometry);
         }
-        tes.draw();
+
+        Minecraft.getMinecraft().renderEngine.bindTexture(TextureMap.LOCATION_BLOCKS_TEXTURE);
+        geometry.draw();
 
         // Render tile entities
         for (Map.Entry<BlockPos, RenderData> entry : renderDataMap.entrySet()) {
@@ -251,9 +341,49 @@ public class StructureRenderHelper {
                 // This is expected for blocks like AE2's Quantum Bridge
             }
         }
+    }
 
-        GL11.glPopMatrix();
-        GL11.glPopAttrib();
+    /**
+     * Render the blocks showing their current samples into a vertex buffer.
+     */
+    private CompiledGeometry compileBlocks(@Nullable Integer slice) {
+        updateRenderAccess(slice);
+
+        BlockRendererDispatcher brd = Minecraft.getMinecraft().getBlockRendererDispatcher();
+        VertexFormat blockFormat = DefaultVertexFormats.BLOCK;
+
+        BufferBuilder vb = Tessellator.getInstance().getBuffer();
+
+        vb.begin(GL11.GL_QUADS, blockFormat);
+        for (Map.Entry<BlockPos, RenderData> entry : renderDataMap.entrySet()) {
+            BlockPos pos = entry.getKey();
+            if (slice != null && slice != pos.getY()) continue;
+
+            RenderData data = entry.getValue();
+            IBlockState state = data.getSampleState(sampleSnap);
+            if (state == null || state.getBlock() == Blocks.AIR) continue;
+
+            // Skip states with missing models to avoid purple/black checkerboard textures
+            // But allow fluid blocks which render differently
+            boolean isFluid = state.getBlock() instanceof BlockLiquid || state.getBlock() instanceof IFluidBlock;
+            if (!isFluid && !BlockStateRenderValidator.canRender(state)) continue;
+
+            try {
+                IBlockState actualState = state.getBlock().getActualState(state, renderAccess, pos);
+
+                // Fluids are rendered through the normal block renderer as well
+                // The BlockRendererDispatcher handles BlockLiquid specially via BlockModelRenderer
+                brd.renderBlock(actualState, pos, renderAccess, vb);
+            } catch (Exception ignored) {
+                // Some blocks fail to render in fake world context - silently skip
+            }
+        }
+        vb.finishDrawing();
+
+        CompiledGeometry geometry = new CompiledGeometry(vb);
+        vb.reset();
+
+        return geometry;
     }
 
     /**
@@ -275,6 +405,64 @@ public class StructureRenderHelper {
         }
     }
 
+    /**
+     * Identifies the geometry of a helper for one sample phase and slice.
+     */
+    private static class GeometryKey {
+        private final StructureRenderHelper helper;
+        private final long phase;
+        @Nullable
+        private final Integer slice;
+
+        GeometryKey(StructureRenderHelper helper, long phase, @Nullable Integer slice) {
+            this.helper = helper;
+            this.phase = phase;
+            this.slice = slice;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof GeometryKey)) return false;
+
+            GeometryKey other = (GeometryKey) o;
+
+            return helper == other.helper && phase == other.phase && Objects.equals(slice, other.slice);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(System.identityHashCode(helper), phase, slice);
+        }
+    }
+
+    /**
+     * Block geometry compiled into a vertex buffer.
+     */
+    private static class CompiledGeometry {
+        private final VertexBuffer buffer = new VertexBuffer(DefaultVertexFormats.BLOCK);
+        private final int vertexCount;
+
+        CompiledGeometry(BufferBuilder finished) {
+            this.vertexCount = finished.getVertexCount();
+            buffer.bufferData(finished.getByteBuffer());
+        }
+
+        void draw() {
+            if (vertexCount == 0) return;
+
+            RenderingUtils.enableBlockArrays();
+            buffer.bindBuffer();
+            RenderingUtils.setBlockArrayPointers();
+            buffer.drawArrays(GL11.GL_QUADS);
+            RenderingUtils.disableBlockArrays();
+        }
+
+        void delete() {
+            buffer.deleteGlBuffers();
+        }
+    }
+
     /**
      * Holds render data for a single block position.
      */
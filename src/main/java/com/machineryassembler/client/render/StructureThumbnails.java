@@ -0,0 +1,261 @@
+// SPDX-License-Identifier: GPL-3.0-or-later
+// SPDX-FileCopyrightText: 2026 Machinery Assembler Contributors
+
+package com.machineryassembler.client.render;
+
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.nio.IntBuffer;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import javax.annotation.Nullable;
+import javax.imageio.ImageIO;
+
+import org.lwjgl.BufferUtils;
+import org.lwjgl.opengl.GL11;
+import org.lwjgl.opengl.GL12;
+
+import net.minecraft.client.Minecraft;
+import net.minecraft.client.gui.Gui;
+import net.minecraft.client.renderer.GlStateManager;
+import net.minecraft.client.renderer.OpenGlHelper;
+import net.minecraft.client.renderer.texture.DynamicTexture;
+import net.minecraft.client.shader.Framebuffer;
+import net.minecraft.util.ResourceLocation;
+import net.minecraftforge.fml.common.Loader;
+import net.minecraftforge.fml.common.ModContainer;
+import net.minecraftforge.fml.relauncher.Side;
+import net.minecraftforge.fml.relauncher.SideOnly;
+
+import com.machineryassembler.MachineryAssembler;
+import com.machineryassembler.common.CommonProxy;
+import com.machineryassembler.common.config.AutobuildConfig;
+import com.machineryassembler.common.structure.Structure;
+import com.machineryassembler.common.structure.StructureSync;
+
+
+/**
+ * Thumbnails of structures for lists, rendered once at the default GUI angle into textures.
+ * <p>
+ * Thumbnails are kept within {@link AutobuildConfig#thumbnailMemory}, the least recently drawn dropped first,
+ * and saved as PNGs named by definition hash and by the resource packs and mods they were rendered with.
+ * Only a few are rendered or read per frame, lists show the missing ones as they come.
+ */
+@SideOnly(Side.CLIENT)
+public class StructureThumbnails {
+
+    /** Width and height of the thumbnails, in pixels. */
+    public static final int SIZE = 128;
+
+    private static final int BYTES = SIZE * SIZE * 4;
+
+    private static final int MAX_PER_FRAME = 2;
+
+    /** Thread writing rendered thumbnails to disk. */
+    private static final ExecutorService WRITER = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "Machinery Assembler Thumbnail Writer");
+        thread.setDaemon(true);
+
+        return thread;
+    });
+
+    private final Map<ResourceLocation, Thumbnail> thumbnails = new LinkedHashMap<>(16, 0.75F, true);
+
+    @Nullable
+    private Framebuffer framebuffer = null;
+    private final IntBuffer pixelBuffer = BufferUtils.createIntBuffer(SIZE * SIZE);
+
+    private int frameBudget = MAX_PER_FRAME;
+
+    // Hash of the resource packs and mods, part of the file names on disk
+    @Nullable
+    private String appearanceKey = null;
+
+    /**
+     * Start a new frame, allowing a few more thumbnails to be made.
+     */
+    public void beginFrame() {
+        frameBudget = MAX_PER_FRAME;
+    }
+
+    /**
+     * Draw the thumbnail of a structure, making it first if the frame allows it.
+     *
+     * @return false if the structure has no thumbnail yet
+     */
+    public boolean draw(Structure structure, int x, int y, int size) {
+        Thumbnail thumbnail = get(structure);
+        if (thumbnail == null) return false;
+
+        GlStateManager.bindTexture(thumbnail.texture.getGlTextureId());
+        GlStateManager.enableBlend();
+        GlStateManager.tryBlendFuncSeparate(GlStateManager.SourceFactor.SRC_ALPHA, GlStateManager.DestFactor.ONE_MINUS_SRC_ALPHA,
+            GlStateManager.SourceFactor.ONE, GlStateManager.DestFactor.ZERO);
+        GlStateManager.color(1F, 1F, 1F, 1F);
+        Gui.drawModalRectWithCustomSizedTexture(x, y, 0, 0, size, size, size, size);
+        GlStateManager.disableBlend();
+
+        return true;
+    }
+
+    /**
+     * Drop all thumbnails from memory, such as when the block atlas was rebuilt.
+     */
+    public void clear() {
+        for (Thumbnail thumbnail : thumbnails.values()) thumbnail.texture.deleteGlTexture();
+
+        thumbnails.clear();
+        appearanceKey = null;
+    }
+
+    @Nullable
+    private Thumbnail get(Structure structure) {
+        String hash = structure.getDefinitionHash();
+        Thumbnail thumbnail = thumbnails.get(structure.getRegistryName());
+
+        // A thumbnail of an older definition is still shown until the new one is made
+        if (thumbnail != null && Objects.equals(thumbnail.hash, hash)) return thumbnail;
+        if (frameBudget <= 0 || !OpenGlHelper.isFramebufferEnabled()) return thumbnail;
+
+        frameBudget--;
+
+        File file = getFile(hash);
+        int[] pixels = file != null ? read(file) : null;
+
+        if (pixels == null) {
+            pixels = render(structure);
+            if (file != null) write(file, pixels);
+        }
+
+        if (thumbnail == null) {
+            thumbnail = new Thumbnail(new DynamicTexture(SIZE, SIZE));
+            thumbnails.put(structure.getRegistryName(), thumbnail);
+            evict();
+        }
+
+        thumbnail.hash = hash;
+        System.arraycopy(pixels, 0, thumbnail.texture.getTextureData(), 0, pixels.length);
+        thumbnail.texture.updateDynamicTexture();
+
+        // Smooth, as lists draw thumbnails far smaller than they are. Uploading leaves the texture bound and sharp
+        GlStateManager.glTexParameteri(GL11.GL_TEXTURE_2D, GL11.GL_TEXTURE_MIN_FILTER, GL11.GL_LINEAR);
+        GlStateManager.glTexParameteri(GL11.GL_TEXTURE_2D, GL11.GL_TEXTURE_MAG_FILTER, GL11.GL_LINEAR);
+
+        return thumbnail;
+    }
+
+    private void evict() {
+        long maxBytes = AutobuildConfig.thumbnailMemory * 1024L * 1024L;
+        Iterator<Thumbnail> iterator = thumbnails.values().iterator();
+
+        // The newest thumbnail is last, and always kept
+        while ((long) thumbnails.size() * BYTES > maxBytes && thumbnails.size() > 1) {
+            iterator.next().texture.deleteGlTexture();
+            iterator.remove();
+        }
+    }
+
+    /**
+     * Render a structure into the framebuffer and read it back.
+     *
+     * @return The ARGB pixels of the thumbnail, from the top left
+     */
+    private int[] render(Structure structure) {
+        Minecraft mc = Minecraft.getMinecraft();
+
+        if (framebuffer == null) {
+            framebuffer = new Framebuffer(SIZE, SIZE, true);
+            framebuffer.setFramebufferColor(0F, 0F, 0F, 0F);
+        }
+
+        StructureRenderHelper render = StructureRenderContext.createContext(structure).getRender();
+
+        // Thumbnails always show the first sample of each block, like on disk
+        render.setSampleSnap(0);
+
+        framebuffer.framebufferClear();
+        framebuffer.bindFramebuffer(true);
+        render.renderIsometric(0);
+
+        pixelBuffer.clear();
+        GlStateManager.glPixelStorei(GL11.GL_PACK_ALIGNMENT, 1);
+        GL11.glReadPixels(0, 0, SIZE, SIZE, GL12.GL_BGRA, GL12.GL_UNSIGNED_INT_8_8_8_8_REV, pixelBuffer);
+
+        mc.getFramebuffer().bindFramebuffer(true);
+        render.releaseGeometry();
+
+        // OpenGL rows start from the bottom
+        int[] pixels = new int[SIZE * SIZE];
+        for (int row = 0; row < SIZE; row++) {
+            pixelBuffer.position((SIZE - 1 - row) * SIZE);
+            pixelBuffer.get(pixels, row * SIZE, SIZE);
+        }
+
+        return pixels;
+    }
+
+    @Nullable
+    private File getFile(@Nullable String hash) {
+        if (hash == null || !AutobuildConfig.thumbnailDiskCache) return null;
+
+        if (appearanceKey == null) {
+            StringBuilder key = new StringBuilder();
+            for (String pack : Minecraft.getMinecraft().gameSettings.resourcePacks) key.append(pack).append(';');
+            for (ModContainer mod : Loader.instance().getActiveModList()) {
+                key.append(mod.getModId()).append('@').append(mod.getVersion()).append(';');
+            }
+
+            appearanceKey = StructureSync.hash(key.toString()).substring(0, 8);
+        }
+
+        return new File(CommonProxy.dataHolder.getThumbnailCacheDirectory(), hash + "-" + appearanceKey + ".png");
+    }
+
+    @Nullable
+    private static int[] read(File file) {
+        if (!file.isFile()) return null;
+
+        try {
+            BufferedImage image = ImageIO.read(file);
+            if (image == null || image.getWidth() != SIZE || image.getHeight() != SIZE) return null;
+
+            return image.getRGB(0, 0, SIZE, SIZE, null, 0, SIZE);
+        } catch (IOException e) {
+            MachineryAssembler.LOGGER.warn("Failed to read cached thumbnail {}", file, e);
+
+            return null;
+        }
+    }
+
+    private static void write(File file, int[] pixels) {
+        WRITER.execute(() -> {
+            File directory = file.getParentFile();
+            if (!directory.exists()) directory.mkdirs();
+
+            BufferedImage image = new BufferedImage(SIZE, SIZE, BufferedImage.TYPE_INT_ARGB);
+            image.setRGB(0, 0, SIZE, SIZE, pixels, 0, SIZE);
+
+            try {
+                ImageIO.write(image, "png", file);
+            } catch (IOException e) {
+                MachineryAssembler.LOGGER.warn("Failed to cache thumbnail {}", file, e);
+            }
+        });
+    }
+
+    private static class Thumbnail {
+        private final DynamicTexture texture;
+        @Nullable
+        private String hash;
+
+        Thumbnail(DynamicTexture texture) {
+            this.texture = texture;
+        }
+    }
+}
@@ -5,13 +5,17 @@ import java.io.File;
 import net.minecraftforge.fml.common.event.FMLServerStartingEvent;
 
 import net.minecraftforge.common.ForgeChunkManager;
+import net.minecraftforge.common.MinecraftForge;
 
 import com.machineryassembler.MachineryAssembler;
+import com.machineryassembler.common.autobuild.ServerAutobuildHandler;
 import com.machineryassembler.common.command.CommandReloadStructures;
 import com.machineryassembler.common.config.AutobuildConfig;
 import com.machineryassembler.common.data.DataHolder;
 import com.machineryassembler.common.network.NetworkHandler;
+import com.machineryassembler.common.structure.BlockRequirement;
 import com.machineryassembler.common.structure.StructureRegistry;
+import com.machineryassembler.common.structure.StructureSync;
 
 
 public class CommonProxy {
@@ -29,11 +33,10 @@ public class CommonProxy {
     public void preInit() {
         NetworkHandler.init();
         StructureRegistry.preloadStructures();
+        MinecraftForge.EVENT_BUS.register(StructureSync.class);
 
         // Register chunk loading callback for autobuild
-        ForgeChunkManager.setForcedChunkLoadingCallback(MachineryAssembler.instance, (tickets, world) -> {
-            // We don't need to reload tickets on world load since autobuild is one-shot
-        });
+        ForgeChunkManager.setForcedChunkLoadingCallback(MachineryAssembler.instance, ServerAutobuildHandler::resumeTasks);
     }
 
     public void init() {
@@ -48,6 +51,17 @@ public class CommonProxy {
         event.registerServerCommand(new CommandReloadStructures());
     }
 
+    public void serverStopped() {
+        ServerAutobuildHandler.onServerStopped();
+    }
+
+    /**
+     * Called when registry ids were remapped, such as when joining a server.
+     */
+    public void idMapping() {
+        BlockRequirement.clearStackCache();
+    }
+
     /**
      * Called when structures are reloaded.
      * Overridden on client to notify JEI.
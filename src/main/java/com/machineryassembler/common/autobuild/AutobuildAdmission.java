@@ -0,0 +1,270 @@
+// SPDX-License-Identifier: GPL-3.0-or-later
+// SPDX-FileCopyrightText: 2026 Machinery Assembler Contributors
+
+package com.machineryassembler.common.autobuild;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import javax.annotation.Nullable;
+
+import net.minecraft.entity.player.EntityPlayerMP;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.util.ResourceLocation;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.WorldServer;
+
+import com.machineryassembler.common.config.AutobuildConfig;
+import com.machineryassembler.common.network.NetworkHandler;
+import com.machineryassembler.common.network.PacketAutobuildQueueStatus;
+import com.machineryassembler.common.network.PacketAutobuildQueueStatus.Status;
+
+
+/**
+ * Admission control for autobuild requests.
+ * <p>
+ * A build holds a slot from the moment it is admitted (before its chunks are forced and it is planned)
+ * until its task finishes or the request is aborted. Slots are limited per player and globally,
+ * both in number of builds ({@link AutobuildConfig#maxBuildsPerPlayer}, {@link AutobuildConfig#maxConcurrentBuilds})
+ * and in blocks ({@link AutobuildConfig#maxQueuedBlocksPerPlayer}, {@link AutobuildConfig#maxQueuedBlocks}).
+ * <p>
+ * Requests that don't fit wait in a FIFO queue, and their players are told their position.
+ * A request only blocked by its own player's limits lets the ones behind it through,
+ * while one blocked by a global limit holds the line, so large builds are not starved.
+ * Requests for a structure already active or waiting at the same place are refused.
+ */
+class AutobuildAdmission {
+
+    /** Requests a single player may have waiting at once. */
+    private static final int MAX_WAITING_PER_PLAYER = 4;
+
+    private static final Map<String, Reservation> active = new LinkedHashMap<>();
+    private static final List<Reservation> waiting = new ArrayList<>();
+
+    private static boolean changed = false;
+
+    private AutobuildAdmission() {
+    }
+
+    /**
+     * Identify a build by dimension, structure and origin.
+     * Rotation is left out: the same structure at the same origin overlaps itself whichever way it faces.
+     */
+    static String keyOf(WorldServer world, ResourceLocation structureId, BlockPos origin) {
+        return keyOf(world.provider.getDimension(), structureId, origin);
+    }
+
+    private static String keyOf(int dimension, ResourceLocation structureId, BlockPos origin) {
+        return dimension + ":" + structureId + "@" + origin.toLong();
+    }
+
+    /**
+     * Admit a request right away if it fits, otherwise queue it and report its position.
+     *
+     * @param blocks The number of positions in the structure, an upper bound of what it will place
+     */
+    static void submit(EntityPlayerMP player, ResourceLocation structureId, BlockPos origin, int rotation, int blocks) {
+        String key = keyOf(player.getServerWorld(), structureId, origin);
+
+        if (active.containsKey(key) || findWaiting(key) != null) {
+            NetworkHandler.INSTANCE.sendTo(new PacketAutobuildQueueStatus(Status.DUPLICATE, 0), player);
+
+            return;
+        }
+
+        int blockLimit = Math.min(limit(AutobuildConfig.maxQueuedBlocksPerPlayer), limit(AutobuildConfig.maxQueuedBlocks));
+        if (blocks > blockLimit) {
+            NetworkHandler.INSTANCE.sendTo(new PacketAutobuildQueueStatus(Status.REJECTED, blockLimit), player);
+
+            return;
+        }
+
+        if (countWaiting(player.getUniqueID()) >= MAX_WAITING_PER_PLAYER) {
+            NetworkHandler.INSTANCE.sendTo(new PacketAutobuildQueueStatus(Status.REJECTED, MAX_WAITING_PER_PLAYER), player);
+
+            return;
+        }
+
+        Reservation reservation = new Reservation(key, player.getUniqueID(), player.dimension, structureId, origin,
+            rotation, blocks);
+        waiting.add(reservation);
+
+        // Only goes through now if nobody ahead is waiting on a global limit
+        poll(player.getServer(), reservation);
+    }
+
+    /**
+     * Track a build that is already running, without checking limits. Used for resumed tasks.
+     */
+    static void restore(WorldServer world, ResourceLocation structureId, BlockPos origin, int rotation,
+                        UUID playerId, int blocks) {
+        String key = keyOf(world, structureId, origin);
+        active.put(key, new Reservation(key, playerId, world.provider.getDimension(), structureId, origin,
+            rotation, blocks));
+    }
+
+    /**
+     * Shrink a build's reservation to the blocks it actually queued, once planned.
+     */
+    static void updateBlocks(String key, int blocks) {
+        Reservation reservation = active.get(key);
+        if (reservation == null) return;
+
+        reservation.blocks = blocks;
+        changed = true;
+    }
+
+    /**
+     * Free a build's slot, once its task finished or its request was aborted.
+     */
+    static void release(String key) {
+        if (active.remove(key) != null) changed = true;
+    }
+
+    /**
+     * Admit waiting requests if slots were freed since the last tick.
+     */
+    static void tick(@Nullable MinecraftServer server) {
+        if (!changed || server == null) return;
+
+        poll(server, null);
+    }
+
+    static void clear() {
+        active.clear();
+        waiting.clear();
+        changed = false;
+    }
+
+    private static void poll(MinecraftServer server, @Nullable Reservation submitted) {
+        changed = false;
+
+        Iterator<Reservation> it = waiting.iterator();
+
+        while (it.hasNext()) {
+            Reservation reservation = it.next();
+            EntityPlayerMP player = server.getPlayerList().getPlayerByUUID(reservation.playerId);
+
+            // Nothing is reserved for a waiting request, so it can just be forgotten
+            if (player == null || player.dimension != reservation.dimension) {
+                it.remove();
+                continue;
+            }
+
+            Blocker blocker = checkLimits(reservation);
+            if (blocker == Blocker.GLOBAL) break;
+            if (blocker == Blocker.PLAYER) continue;
+
+            it.remove();
+            active.put(reservation.key, reservation);
+
+            // Players are only told about starting if they were told about waiting
+            if (reservation.reportedPosition > 0) {
+                NetworkHandler.INSTANCE.sendTo(new PacketAutobuildQueueStatus(Status.STARTED, 0), player);
+            }
+
+            ServerAutobuildHandler.startBuild(player, reservation.structureId, reservation.origin, reservation.rotation);
+        }
+
+        reportPositions(server, submitted);
+    }
+
+    private static void reportPositions(MinecraftServer server, @Nullable Reservation submitted) {
+        for (int i = 0; i < waiting.size(); i++) {
+            Reservation reservation = waiting.get(i);
+            int position = i + 1;
+
+            // Positions only move forward, report the first one and every change
+            if (reservation.reportedPosition == position) continue;
+            if (reservation.reportedPosition == 0 && reservation != submitted) continue;
+
+            EntityPlayerMP player = server.getPlayerList().getPlayerByUUID(reservation.playerId);
+            if (player == null) continue;
+
+            reservation.reportedPosition = position;
+            NetworkHandler.INSTANCE.sendTo(new PacketAutobuildQueueStatus(Status.QUEUED, position), player);
+        }
+    }
+
+    private static Blocker checkLimits(Reservation candidate) {
+        int playerBuilds = 0;
+        long playerBlocks = candidate.blocks;
+        long totalBlocks = candidate.blocks;
+
+        for (Reservation reservation : active.values()) {
+            totalBlocks += reservation.blocks;
+
+            if (reservation.playerId.equals(candidate.playerId)) {
+                playerBuilds++;
+                playerBlocks += reservation.blocks;
+            }
+        }
+
+        if (playerBuilds >= limit(AutobuildConfig.maxBuildsPerPlayer)) return Blocker.PLAYER;
+        if (playerBlocks > limit(AutobuildConfig.maxQueuedBlocksPerPlayer)) return Blocker.PLAYER;
+        if (active.size() >= limit(AutobuildConfig.maxConcurrentBuilds)) return Blocker.GLOBAL;
+        if (totalBlocks > limit(AutobuildConfig.maxQueuedBlocks)) return Blocker.GLOBAL;
+
+        return Blocker.NONE;
+    }
+
+    /**
+     * Config limits use 0 for unlimited.
+     */
+    private static int limit(int configured) {
+        return configured <= 0 ? Integer.MAX_VALUE : configured;
+    }
+
+    @Nullable
+    private static Reservation findWaiting(String key) {
+        for (Reservation reservation : waiting) {
+            if (reservation.key.equals(key)) return reservation;
+        }
+
+        return null;
+    }
+
+    private static int countWaiting(UUID playerId) {
+        int count = 0;
+
+        for (Reservation reservation : waiting) {
+            if (reservation.playerId.equals(playerId)) count++;
+        }
+
+        return count;
+    }
+
+    private enum Blocker {
+        NONE,
+        PLAYER,
+        GLOBAL
+    }
+
+    private static class Reservation {
+        final String key;
+        final UUID playerId;
+        final int dimension;
+        final ResourceLocation structureId;
+        final BlockPos origin;
+        final int rotation;
+        int blocks;
+
+        // Last queue position sent to the player, 0 if none
+        int reportedPosition = 0;
+
+        Reservation(String key, UUID playerId, int dimension, ResourceLocation structureId, BlockPos origin,
+                    int rotation, int blocks) {
+            this.key = key;
+            this.playerId = playerId;
+            this.dimension = dimension;
+            this.structureId = structureId;
+            this.origin = origin;
+            this.rotation = rotation;
+            this.blocks = blocks;
+        }
+    }
+}
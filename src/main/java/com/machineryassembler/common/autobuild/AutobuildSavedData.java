@@ -0,0 +1,95 @@
+// SPDX-License-Identifier: GPL-3.0-or-later
+// SPDX-FileCopyrightText: 2026 Machinery Assembler Contributors
+
+package com.machineryassembler.common.autobuild;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import javax.annotation.Nullable;
+
+import net.minecraft.nbt.NBTTagCompound;
+import net.minecraft.nbt.NBTTagList;
+import net.minecraft.world.WorldServer;
+import net.minecraft.world.storage.MapStorage;
+import net.minecraft.world.storage.WorldSavedData;
+import net.minecraftforge.common.util.Constants;
+
+import com.machineryassembler.MachineryAssembler;
+
+
+/**
+ * Per-world storage of the autobuild tasks still running, so they can be resumed after a restart.
+ * <p>
+ * Live tasks are only serialized when the world saves. On load, their records wait here until the
+ * chunk loading callback claims them through the task id stored in each ticket.
+ * Records that are not claimed (their ticket is gone) are dropped on the next save.
+ */
+public class AutobuildSavedData extends WorldSavedData {
+
+    private static final String NAME = MachineryAssembler.MODID + "_autobuild";
+
+    private final Map<String, ThrottledPlacementTask> tasks = new LinkedHashMap<>();
+    private final Map<String, NBTTagCompound> pending = new HashMap<>();
+
+    public AutobuildSavedData(String name) {
+        super(name);
+    }
+
+    static AutobuildSavedData get(WorldServer world) {
+        MapStorage storage = world.getPerWorldStorage();
+        AutobuildSavedData data = (AutobuildSavedData) storage.getOrLoadData(AutobuildSavedData.class, NAME);
+
+        if (data == null) {
+            data = new AutobuildSavedData(NAME);
+            storage.setData(NAME, data);
+        }
+
+        return data;
+    }
+
+    void track(ThrottledPlacementTask task) {
+        tasks.put(task.getId(), task);
+        markDirty();
+    }
+
+    void untrack(ThrottledPlacementTask task) {
+        if (tasks.remove(task.getId()) != null) markDirty();
+    }
+
+    /**
+     * Take the saved record of a task, if it was not claimed yet.
+     */
+    @Nullable
+    NBTTagCompound claim(String taskId) {
+        return pending.remove(taskId);
+    }
+
+    @Override
+    public void readFromNBT(NBTTagCompound nbt) {
+        NBTTagList list = nbt.getTagList("tasks", Constants.NBT.TAG_COMPOUND);
+
+        for (int i = 0; i < list.tagCount(); i++) {
+            NBTTagCompound record = list.getCompoundTagAt(i);
+            pending.put(record.getString("id"), record);
+        }
+    }
+
+    @Override
+    public NBTTagCompound writeToNBT(NBTTagCompound compound) {
+        NBTTagList list = new NBTTagList();
+
+        for (ThrottledPlacementTask task : tasks.values()) list.appendTag(task.writeToNBT());
+
+        if (!pending.isEmpty()) {
+            MachineryAssembler.LOGGER.warn("Dropping {} saved autobuild task(s) whose chunk ticket was not restored",
+                pending.size());
+            pending.clear();
+        }
+
+        compound.setTag("tasks", list);
+
+        return compound;
+    }
+}
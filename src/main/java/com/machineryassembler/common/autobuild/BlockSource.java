@@ -3,11 +3,11 @@
 
 package com.machineryassembler.common.autobuild;
 
-import java.util.HashMap;
-import java.util.Map;
-
 import javax.annotation.Nullable;
 
+import it.unimi.dsi.fastutil.ints.Int2IntMap;
+import it.unimi.dsi.fastutil.ints.Int2IntOpenHashMap;
+
 import net.minecraft.block.state.IBlockState;
 import net.minecraft.entity.player.EntityPlayer;
 import net.minecraft.item.ItemStack;
@@ -41,21 +41,17 @@ public interface BlockSource {
      * Checks availability of multiple block types at once.
      * Returns a map of block key -> available count.
      *
-     * @param requirements Map of block key (registry:meta) -> required count
+     * @param requirements Map of block key (see {@link BlockSourceUtils#stateToId}) -> required count
      * @param player The player
      * @return Map of block key -> available count
      */
-    default Map<String, Integer> checkAvailability(Map<String, Integer> requirements, EntityPlayer player) {
-        Map<String, Integer> available = new HashMap<>();
+    default Int2IntMap checkAvailability(Int2IntMap requirements, EntityPlayer player) {
+        Int2IntMap available = new Int2IntOpenHashMap(requirements.size());
 
-        for (Map.Entry<String, Integer> entry : requirements.entrySet()) {
-            IBlockState state = BlockSourceUtils.keyToState(entry.getKey());
+        for (Int2IntMap.Entry entry : requirements.int2IntEntrySet()) {
+            IBlockState state = BlockSourceUtils.idToState(entry.getIntKey());
 
-            if (state != null) {
-                available.put(entry.getKey(), countAvailable(state, player));
-            } else {
-                available.put(entry.getKey(), 0);
-            }
+            available.put(entry.getIntKey(), state != null ? countAvailable(state, player) : 0);
         }
 
         return available;
@@ -77,12 +73,12 @@ public interface BlockSource {
      * Batch extract multiple blocks from this source.
      * Extracts as many as possible and returns the remainder that couldn't be extracted.
      *
-     * @param requirements Map of block key (registry:meta) -> required count
+     * @param requirements Map of block key (see {@link BlockSourceUtils#stateToId}) -> required count
      * @param player The player
      * @param simulate If true, don't actually extract, just check
      * @return Map of block key -> count that could NOT be extracted (remainder)
      */
-    Map<String, Integer> batchExtract(Map<String, Integer> requirements, EntityPlayer player, boolean simulate);
+    Int2IntMap batchExtract(Int2IntMap requirements, EntityPlayer player, boolean simulate);
 
     /**
      * Returns a descriptive name for this source (for logging/debugging).
@@ -0,0 +1,225 @@
+// SPDX-License-Identifier: GPL-3.0-or-later
+// SPDX-FileCopyrightText: 2026 Machinery Assembler Contributors
+
+package com.machineryassembler.common.autobuild;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import it.unimi.dsi.fastutil.ints.Int2IntMap;
+import it.unimi.dsi.fastutil.ints.Int2IntOpenHashMap;
+
+import net.minecraft.block.state.IBlockState;
+import net.minecraft.init.Blocks;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.IBlockAccess;
+import net.minecraft.world.WorldServer;
+import net.minecraft.world.chunk.Chunk;
+import net.minecraft.world.chunk.storage.ExtendedBlockStorage;
+
+import com.machineryassembler.common.structure.BlockRequirement;
+import com.machineryassembler.common.structure.StructurePattern;
+
+
+/**
+ * Classification of every position of a structure against the world, computed in a single pass.
+ * <p>
+ * Positions are visited in placement order, which groups them by chunk section, so block states
+ * are read straight from a cached {@link ExtendedBlockStorage} instead of going through the world
+ * for each position. The obstruction list, the bill of materials and the placement queue are all
+ * derived from this one classification.
+ * <p>
+ * For big structures, the plan can also be computed off the server thread from a {@link ChunkSnapshot},
+ * then {@link #reconcile reconciled} with the live world on the server thread.
+ */
+class BuildPlan {
+
+    /** The position already holds a matching block. */
+    static final byte SATISFIED = 0;
+    /** The position is air. */
+    static final byte FREE = 1;
+    /** The position holds a block that placement can replace (grass, snow layer, fluid...). */
+    static final byte REPLACEABLE = 2;
+    /** The position holds a non-matching block that can't be replaced. */
+    static final byte OBSTRUCTED = 3;
+
+    private static final IBlockState AIR = Blocks.AIR.getDefaultState();
+
+    private final List<Map.Entry<BlockPos, BlockRequirement>> sortedBlocks;
+    private final byte[] classes;
+    private final int[] stateIds;
+
+    private final List<BlockPos> obstructed = new ArrayList<>();
+    private final Int2IntOpenHashMap required = new Int2IntOpenHashMap();
+    private int satisfiedCount = 0;
+
+    private BuildPlan(List<Map.Entry<BlockPos, BlockRequirement>> sortedBlocks) {
+        this.sortedBlocks = sortedBlocks;
+        this.classes = new byte[sortedBlocks.size()];
+        this.stateIds = new int[sortedBlocks.size()];
+    }
+
+    /**
+     * Classify every position of the pattern placed at the given origin, reading the live world.
+     * The structure's chunks are expected to be loaded.
+     */
+    static BuildPlan classify(WorldServer world, StructurePattern pattern, BlockPos origin) {
+        BuildPlan plan = new BuildPlan(ServerAutobuildHandler.prepareSortedBlocks(pattern, origin));
+        BlockPos.MutableBlockPos mutablePos = new BlockPos.MutableBlockPos();
+
+        Chunk chunk = null;
+        ExtendedBlockStorage storage = null;
+        int sectionY = -1;
+
+        for (int i = 0; i < plan.sortedBlocks.size(); i++) {
+            Map.Entry<BlockPos, BlockRequirement> entry = plan.sortedBlocks.get(i);
+            BlockPos worldPos = entry.getKey();
+            BlockRequirement requirement = entry.getValue();
+
+            IBlockState state;
+
+            if (world.isOutsideBuildHeight(worldPos)) {
+                state = AIR;
+            } else {
+                if (chunk == null || chunk.x != worldPos.getX() >> 4 || chunk.z != worldPos.getZ() >> 4) {
+                    chunk = world.getChunk(worldPos);
+                    sectionY = -1;
+                }
+
+                if (sectionY != worldPos.getY() >> 4) {
+                    sectionY = worldPos.getY() >> 4;
+                    storage = chunk.getBlockStorageArray()[sectionY];
+                }
+
+                state = storage == Chunk.NULL_BLOCK_STORAGE
+                    ? AIR
+                    : storage.get(worldPos.getX() & 15, worldPos.getY() & 15, worldPos.getZ() & 15);
+            }
+
+            mutablePos.setPos(worldPos);
+            plan.classify(i, world, mutablePos, requirement, state);
+        }
+
+        return plan;
+    }
+
+    /**
+     * Classify every position of the pattern placed at the given origin, reading a snapshot.
+     * Safe to call from any thread, as long as the snapshot covers the structure.
+     * Tile entity data is not part of the snapshot, so the result must be {@link #reconcile reconciled}.
+     */
+    static BuildPlan classify(ChunkSnapshot snapshot, StructurePattern pattern, BlockPos origin) {
+        BuildPlan plan = new BuildPlan(ServerAutobuildHandler.prepareSortedBlocks(pattern, origin));
+        BlockPos.MutableBlockPos mutablePos = new BlockPos.MutableBlockPos();
+
+        for (int i = 0; i < plan.sortedBlocks.size(); i++) {
+            Map.Entry<BlockPos, BlockRequirement> entry = plan.sortedBlocks.get(i);
+
+            mutablePos.setPos(entry.getKey());
+            plan.classify(i, snapshot, mutablePos, entry.getValue(), snapshot.getBlockState(mutablePos));
+        }
+
+        return plan;
+    }
+
+    /**
+     * Recheck, against the live world, the positions a snapshot classified as satisfied while their
+     * requirement also matches tile entity data. Must be called on the server thread.
+     * Other changes made since the snapshot are caught when each block is placed.
+     */
+    void reconcile(WorldServer world) {
+        for (int i = 0; i < classes.length; i++) {
+            if (classes[i] != SATISFIED) continue;
+
+            Map.Entry<BlockPos, BlockRequirement> entry = sortedBlocks.get(i);
+            BlockRequirement requirement = entry.getValue();
+            if (requirement.getMatchingTag() == null) continue;
+
+            BlockPos worldPos = entry.getKey();
+            IBlockState state = world.getBlockState(worldPos);
+            if (requirement.matchesState(world, worldPos, state)) continue;
+
+            satisfiedCount--;
+
+            // Same block, wrong data: can't be replaced in place
+            classes[i] = OBSTRUCTED;
+            obstructed.add(worldPos);
+        }
+    }
+
+    private void classify(int index, IBlockAccess world, BlockPos.MutableBlockPos pos,
+                          BlockRequirement requirement, IBlockState state) {
+        if (requirement.matchesState(world, pos, state)) {
+            classes[index] = SATISFIED;
+            satisfiedCount++;
+
+            return;
+        }
+
+        if (state.getBlock() == Blocks.AIR) {
+            classes[index] = FREE;
+        } else if (state.getBlock().isReplaceable(world, pos)) {
+            classes[index] = REPLACEABLE;
+        } else {
+            classes[index] = OBSTRUCTED;
+            obstructed.add(pos.toImmutable());
+
+            return;
+        }
+
+        int stateId = BlockSourceUtils.stateToId(requirement.getSampleState());
+        stateIds[index] = stateId;
+        required.addTo(stateId, 1);
+    }
+
+    /**
+     * @return The positions holding a block that is neither correct nor replaceable, in placement order
+     */
+    List<BlockPos> getObstructed() {
+        return obstructed;
+    }
+
+    /**
+     * @return The blocks needed for every free or replaceable position, keyed by state id
+     */
+    Int2IntMap getRequired() {
+        return required;
+    }
+
+    int getSatisfiedCount() {
+        return satisfiedCount;
+    }
+
+    int size() {
+        return classes.length;
+    }
+
+    /**
+     * Build the placement queue: every free or replaceable position, in placement order,
+     * as long as material was reserved for it. Positions without material are left out.
+     */
+    PlacementQueue buildQueue(Int2IntMap reserved) {
+        Int2IntMap remaining = new Int2IntOpenHashMap(reserved);
+
+        int totalReserved = 0;
+        for (int count : reserved.values()) totalReserved += count;
+
+        PlacementQueue queue = new PlacementQueue(totalReserved);
+
+        for (int i = 0; i < classes.length; i++) {
+            if (classes[i] != FREE && classes[i] != REPLACEABLE) continue;
+
+            int stateId = stateIds[i];
+            int available = remaining.get(stateId);
+            if (available <= 0) continue;
+
+            remaining.put(stateId, available - 1);
+
+            Map.Entry<BlockPos, BlockRequirement> entry = sortedBlocks.get(i);
+            queue.add(entry.getKey(), i, entry.getValue().getSampleState(), entry.getValue());
+        }
+
+        return queue;
+    }
+}
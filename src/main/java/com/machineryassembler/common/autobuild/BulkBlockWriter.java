@@ -0,0 +1,138 @@
+// SPDX-License-Identifier: GPL-3.0-or-later
+// SPDX-FileCopyrightText: 2026 Machinery Assembler Contributors
+
+package com.machineryassembler.common.autobuild;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import it.unimi.dsi.fastutil.longs.Long2LongMap;
+import it.unimi.dsi.fastutil.longs.Long2LongOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+
+import net.minecraft.block.state.IBlockState;
+import net.minecraft.util.EnumFacing;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.EnumSkyBlock;
+import net.minecraft.world.WorldServer;
+import net.minecraft.world.chunk.Chunk;
+
+
+/**
+ * Writes block states straight into chunks, without the per-block neighbor updates, observer
+ * updates, relighting and client notification of {@link net.minecraft.world.World#setBlockState}.
+ * <p>
+ * Touched positions are queued, and {@link #flush} later runs one consolidated pass for all of them:
+ * every affected position gets a single neighbor update, observers and comparators next to written blocks
+ * are updated, and only positions whose block light can actually change are relit (sky light is kept up
+ * to date by the chunk's own height map handling).
+ * Clients are left to the caller, see {@link ChunkSyncBatcher}, the world's other listeners are notified on flush.
+ */
+class BulkBlockWriter {
+
+    private final WorldServer world;
+    private final LongArrayList touched = new LongArrayList();
+    private final List<IBlockState> oldStates = new ArrayList<>();
+
+    // Last chunk written to, placements are ordered by chunk section so this is almost always a hit
+    private Chunk cachedChunk = null;
+
+    BulkBlockWriter(WorldServer world) {
+        this.world = world;
+    }
+
+    /**
+     * Write a block state without any update.
+     *
+     * @return true if the state changed
+     */
+    boolean write(BlockPos pos, IBlockState state) {
+        if (world.isOutsideBuildHeight(pos)) return false;
+
+        Chunk chunk = cachedChunk;
+        if (chunk == null || chunk.x != pos.getX() >> 4 || chunk.z != pos.getZ() >> 4) {
+            chunk = cachedChunk = world.getChunk(pos);
+        }
+
+        IBlockState oldState = chunk.setBlockState(pos, state);
+        if (oldState == null) return false;
+
+        touched.add(pos.toLong());
+        oldStates.add(oldState);
+
+        return true;
+    }
+
+    /**
+     * Run the deferred updates for everything written since the last flush.
+     */
+    void flush() {
+        if (touched.isEmpty()) return;
+
+        relight();
+        notifyListeners();
+        notifyNeighbors();
+
+        touched.clear();
+        oldStates.clear();
+        cachedChunk = null;
+    }
+
+    private void relight() {
+        for (int i = 0; i < touched.size(); i++) {
+            BlockPos pos = BlockPos.fromLong(touched.getLong(i));
+            IBlockState oldState = oldStates.get(i);
+            IBlockState newState = world.getBlockState(pos);
+
+            boolean emits = newState.getLightValue(world, pos) > 0 || oldState.getLightValue(world, pos) > 0;
+            boolean opacityChanged = newState.getLightOpacity(world, pos) != oldState.getLightOpacity(world, pos);
+
+            // Blocking an unlit cell can't darken anything, so most placements need no block light pass
+            if (emits || opacityChanged && world.getLightFor(EnumSkyBlock.BLOCK, pos) > 0) {
+                world.checkLightFor(EnumSkyBlock.BLOCK, pos);
+            }
+        }
+    }
+
+    private void notifyListeners() {
+        for (int i = 0; i < touched.size(); i++) {
+            BlockPos pos = BlockPos.fromLong(touched.getLong(i));
+            ChunkSyncBatcher.notifyListeners(world, pos, oldStates.get(i), world.getBlockState(pos));
+        }
+    }
+
+    /**
+     * Give every position around the written blocks (written ones included) exactly one neighbor update,
+     * from the first written neighbor found, instead of six per written block.
+     * Observers and comparators are still updated for each written block, as with flag 1.
+     */
+    private void notifyNeighbors() {
+        Long2LongMap sources = new Long2LongOpenHashMap(touched.size() * 2);
+
+        for (int i = 0; i < touched.size(); i++) {
+            long from = touched.getLong(i);
+            BlockPos fromPos = BlockPos.fromLong(from);
+
+            for (EnumFacing facing : EnumFacing.VALUES) {
+                sources.putIfAbsent(fromPos.offset(facing).toLong(), from);
+            }
+        }
+
+        for (Long2LongMap.Entry entry : sources.long2LongEntrySet()) {
+            BlockPos pos = BlockPos.fromLong(entry.getLongKey());
+            BlockPos fromPos = BlockPos.fromLong(entry.getLongValue());
+
+            if (!world.isBlockLoaded(pos)) continue;
+
+            world.neighborChanged(pos, world.getBlockState(fromPos).getBlock(), fromPos);
+        }
+
+        for (int i = 0; i < touched.size(); i++) {
+            BlockPos pos = BlockPos.fromLong(touched.getLong(i));
+            IBlockState state = world.getBlockState(pos);
+
+            world.updateObservingBlocksAt(pos, state.getBlock());
+            if (state.hasComparatorInputOverride()) world.updateComparatorOutputLevel(pos, state.getBlock());
+        }
+    }
+}
@@ -0,0 +1,163 @@
+// SPDX-License-Identifier: GPL-3.0-or-later
+// SPDX-FileCopyrightText: 2026 Machinery Assembler Contributors
+
+package com.machineryassembler.common.autobuild;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+
+import net.minecraft.block.Block;
+import net.minecraft.block.state.IBlockState;
+import net.minecraft.init.Biomes;
+import net.minecraft.init.Blocks;
+import net.minecraft.tileentity.TileEntity;
+import net.minecraft.util.EnumFacing;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.IBlockAccess;
+import net.minecraft.world.WorldServer;
+import net.minecraft.world.WorldType;
+import net.minecraft.world.biome.Biome;
+import net.minecraft.world.chunk.Chunk;
+import net.minecraft.world.chunk.NibbleArray;
+import net.minecraft.world.chunk.storage.ExtendedBlockStorage;
+import net.minecraftforge.fml.relauncher.Side;
+import net.minecraftforge.fml.relauncher.SideOnly;
+
+
+/**
+ * Immutable copy of the block states of the chunk sections covering a box, readable from any thread.
+ * <p>
+ * Sections are copied on the server thread with the same encoding vanilla uses to save chunks
+ * (block ids, metadata and id extension arrays), which is a straight walk over the palette.
+ * Decoding back to block states only happens when a position is read.
+ * Tile entities are not copied, so {@link #getTileEntity} always returns null.
+ */
+class ChunkSnapshot implements IBlockAccess {
+
+    private static final IBlockState AIR = Blocks.AIR.getDefaultState();
+
+    // Keyed by section coordinates packed as a BlockPos, missing or empty sections are air
+    private final Long2ObjectMap<Section> sections = new Long2ObjectOpenHashMap<>();
+    private final WorldType worldType;
+
+    private ChunkSnapshot(WorldType worldType) {
+        this.worldType = worldType;
+    }
+
+    /**
+     * Copy the sections covering the given box. Must be called on the server thread.
+     */
+    static ChunkSnapshot capture(WorldServer world, BlockPos min, BlockPos max) {
+        ChunkSnapshot snapshot = new ChunkSnapshot(world.getWorldInfo().getTerrainType());
+
+        int minSectionY = Math.max(min.getY(), 0) >> 4;
+        int maxSectionY = Math.min(max.getY(), world.getHeight() - 1) >> 4;
+
+        for (int cx = min.getX() >> 4; cx <= max.getX() >> 4; cx++) {
+            for (int cz = min.getZ() >> 4; cz <= max.getZ() >> 4; cz++) {
+                ExtendedBlockStorage[] storages = world.getChunk(cx, cz).getBlockStorageArray();
+
+                for (int sy = minSectionY; sy <= maxSectionY; sy++) {
+                    ExtendedBlockStorage storage = storages[sy];
+                    if (storage == Chunk.NULL_BLOCK_STORAGE || storage.isEmpty()) continue;
+
+                    byte[] blockIds = new byte[4096];
+                    NibbleArray metadata = new NibbleArray();
+                    NibbleArray extension = storage.getData().getDataForNBT(blockIds, metadata);
+
+                    snapshot.sections.put(sectionKey(cx, sy, cz), new Section(blockIds, metadata, extension));
+                }
+            }
+        }
+
+        return snapshot;
+    }
+
+    private static long sectionKey(int sectionX, int sectionY, int sectionZ) {
+        return new BlockPos(sectionX, sectionY, sectionZ).toLong();
+    }
+
+    @Nonnull
+    @Override
+    public IBlockState getBlockState(@Nonnull BlockPos pos) {
+        if (pos.getY() < 0 || pos.getY() >= 256) return AIR;
+
+        Section section = sections.get(sectionKey(pos.getX() >> 4, pos.getY() >> 4, pos.getZ() >> 4));
+        if (section == null) return AIR;
+
+        return section.get(pos.getX() & 15, pos.getY() & 15, pos.getZ() & 15);
+    }
+
+    @Nullable
+    @Override
+    public TileEntity getTileEntity(@Nonnull BlockPos pos) {
+        return null;
+    }
+
+    @Override
+    @SideOnly(Side.CLIENT)
+    public int getCombinedLight(@Nonnull BlockPos pos, int lightValue) {
+        return 0;
+    }
+
+    @Override
+    public boolean isAirBlock(@Nonnull BlockPos pos) {
+        IBlockState state = getBlockState(pos);
+
+        return state.getBlock().isAir(state, this, pos);
+    }
+
+    @Nonnull
+    @Override
+    @SideOnly(Side.CLIENT)
+    public Biome getBiome(@Nonnull BlockPos pos) {
+        return Biomes.PLAINS;
+    }
+
+    @Override
+    public int getStrongPower(@Nonnull BlockPos pos, @Nonnull EnumFacing direction) {
+        return 0;
+    }
+
+    @Nonnull
+    @Override
+    @SideOnly(Side.CLIENT)
+    public WorldType getWorldType() {
+        return worldType;
+    }
+
+    @Override
+    public boolean isSideSolid(@Nonnull BlockPos pos, @Nonnull EnumFacing side, boolean _default) {
+        if (pos.getY() < 0 || pos.getY() >= 256) return _default;
+
+        return getBlockState(pos).isSideSolid(this, pos, side);
+    }
+
+    /**
+     * One section in chunk save encoding, see {@code BlockStateContainer#getDataForNBT}.
+     */
+    private static class Section {
+        final byte[] blockIds;
+        final NibbleArray metadata;
+        @Nullable
+        final NibbleArray extension;
+
+        Section(byte[] blockIds, NibbleArray metadata, @Nullable NibbleArray extension) {
+            this.blockIds = blockIds;
+            this.metadata = metadata;
+            this.extension = extension;
+        }
+
+        IBlockState get(int x, int y, int z) {
+            int high = extension == null ? 0 : extension.get(x, y, z);
+            int id = high << 12 | (blockIds[y << 8 | z << 4 | x] & 255) << 4 | metadata.get(x, y, z);
+
+            IBlockState state = Block.BLOCK_STATE_IDS.getByValue(id);
+
+            return state != null ? state : AIR;
+        }
+    }
+}
@@ -0,0 +1,163 @@
+// SPDX-License-Identifier: GPL-3.0-or-later
+// SPDX-FileCopyrightText: 2026 Machinery Assembler Contributors
+
+package com.machineryassembler.common.autobuild;
+
+import java.lang.reflect.Field;
+import java.util.List;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.shorts.ShortArrayList;
+
+import net.minecraft.block.state.IBlockState;
+import net.minecraft.network.play.server.SPacketBlockChange;
+import net.minecraft.network.play.server.SPacketChunkData;
+import net.minecraft.network.play.server.SPacketMultiBlockChange;
+import net.minecraft.network.play.server.SPacketUpdateTileEntity;
+import net.minecraft.server.management.PlayerChunkMapEntry;
+import net.minecraft.tileentity.TileEntity;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.world.IWorldEventListener;
+import net.minecraft.world.ServerWorldEventHandler;
+import net.minecraft.world.World;
+import net.minecraft.world.WorldServer;
+import net.minecraft.world.chunk.Chunk;
+import net.minecraftforge.fml.common.ObfuscationReflectionHelper;
+
+
+/**
+ * Collects the positions an autobuild changed during a tick and sends them to the players
+ * watching each chunk in one go, instead of going through {@link net.minecraft.server.management.PlayerChunkMap}.
+ * <p>
+ * Vanilla only batches 64 changes per chunk per tick; past that it resends every touched section,
+ * which also makes clients re-render the whole chunk column. Here, each chunk gets a single
+ * multi-block change per flush however many blocks changed, and a section is only resent as a
+ * whole once it changed enough for its full data to be smaller than the individual changes.
+ * <p>
+ * Blocks are therefore placed without flag 2, which also skips the world's other listeners:
+ * {@link #notifyListeners} gives them the change, only leaving out the server's own listener.
+ */
+class ChunkSyncBatcher {
+
+    /**
+     * Changes in one section from which the whole section is resent.
+     * A section's data is about 10 KB, a multi-block change entry about 5 bytes.
+     */
+    static final int SECTION_RESEND_THRESHOLD = 2048;
+
+    private static final Field EVENT_LISTENERS = ObfuscationReflectionHelper.findField(World.class, "field_73021_x");
+
+    private final WorldServer world;
+    private final Long2ObjectMap<ShortArrayList> changesByChunk = new Long2ObjectOpenHashMap<>();
+
+    ChunkSyncBatcher(WorldServer world) {
+        this.world = world;
+    }
+
+    /**
+     * Notify the world's listeners of a block change as {@link World#setBlockState} does with flag 2,
+     * except the server's own listener, whose client packets the batcher replaces.
+     * The others, such as mob path invalidation, still need every change.
+     */
+    @SuppressWarnings("unchecked")
+    static void notifyListeners(WorldServer world, BlockPos pos, IBlockState oldState, IBlockState newState) {
+        List<IWorldEventListener> listeners;
+
+        try {
+            listeners = (List<IWorldEventListener>) EVENT_LISTENERS.get(world);
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException("Can't read the world's event listeners", e);
+        }
+
+        for (IWorldEventListener listener : listeners) {
+            if (!(listener instanceof ServerWorldEventHandler)) listener.notifyBlockUpdate(world, pos, oldState, newState, 3);
+        }
+    }
+
+    /**
+     * Queue a changed position for the next flush.
+     */
+    void add(BlockPos pos) {
+        long chunkKey = ChunkPos.asLong(pos.getX() >> 4, pos.getZ() >> 4);
+        ShortArrayList changes = changesByChunk.get(chunkKey);
+
+        if (changes == null) {
+            changes = new ShortArrayList();
+            changesByChunk.put(chunkKey, changes);
+        }
+
+        // Same packing as the vanilla multi-block change: local X, local Z, Y
+        changes.add((short) ((pos.getX() & 15) << 12 | (pos.getZ() & 15) << 8 | pos.getY()));
+    }
+
+    /**
+     * Send everything queued since the last flush.
+     */
+    void flush() {
+        if (changesByChunk.isEmpty()) return;
+
+        for (Long2ObjectMap.Entry<ShortArrayList> entry : changesByChunk.long2ObjectEntrySet()) {
+            long chunkKey = entry.getLongKey();
+            int chunkX = (int) chunkKey;
+            int chunkZ = (int) (chunkKey >> 32);
+
+            PlayerChunkMapEntry watchers = world.getPlayerChunkMap().getEntry(chunkX, chunkZ);
+
+            // Nobody has this chunk yet, they will get the changes with it
+            if (watchers == null || !watchers.isSentToPlayers()) continue;
+
+            sendChunkChanges(watchers, entry.getValue());
+        }
+
+        changesByChunk.clear();
+    }
+
+    private void sendChunkChanges(PlayerChunkMapEntry watchers, ShortArrayList changes) {
+        Chunk chunk = watchers.getChunk();
+        if (chunk == null) return;
+
+        int[] perSection = new int[16];
+        for (int i = 0; i < changes.size(); i++) perSection[(changes.getShort(i) & 255) >> 4]++;
+
+        int resendMask = 0;
+        for (int section = 0; section < 16; section++) {
+            if (perSection[section] >= SECTION_RESEND_THRESHOLD) resendMask |= 1 << section;
+        }
+
+        ShortArrayList individual = changes;
+
+        if (resendMask != 0) {
+            watchers.sendPacket(new SPacketChunkData(chunk, resendMask));
+
+            individual = new ShortArrayList();
+            for (int i = 0; i < changes.size(); i++) {
+                short change = changes.getShort(i);
+                if ((resendMask & 1 << ((change & 255) >> 4)) == 0) individual.add(change);
+            }
+        }
+
+        if (individual.size() == 1) {
+            watchers.sendPacket(new SPacketBlockChange(world, toWorldPos(chunk, individual.getShort(0))));
+        } else if (individual.size() > 1) {
+            watchers.sendPacket(new SPacketMultiBlockChange(individual.size(), individual.toShortArray(), chunk));
+        }
+
+        // Tile entity data is not part of either packet
+        for (int i = 0; i < changes.size(); i++) {
+            TileEntity te = world.getTileEntity(toWorldPos(chunk, changes.getShort(i)));
+            if (te == null) continue;
+
+            SPacketUpdateTileEntity packet = te.getUpdatePacket();
+            if (packet != null) watchers.sendPacket(packet);
+        }
+    }
+
+    private static BlockPos toWorldPos(Chunk chunk, short change) {
+        return new BlockPos(
+            (chunk.x << 4) + (change >> 12 & 15),
+            change & 255,
+            (chunk.z << 4) + (change >> 8 & 15));
+    }
+}
@@ -0,0 +1,108 @@
+// SPDX-License-Identifier: GPL-3.0-or-later
+// SPDX-FileCopyrightText: 2026 Machinery Assembler Contributors
+
+package com.machineryassembler.common.autobuild;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import javax.annotation.Nullable;
+
+import it.unimi.dsi.fastutil.ints.Int2IntMap;
+import it.unimi.dsi.fastutil.ints.Int2IntOpenHashMap;
+
+import net.minecraft.block.state.IBlockState;
+import net.minecraft.entity.player.EntityPlayer;
+import net.minecraft.item.ItemStack;
+
+
+/**
+ * Block source chaining several sources by {@link BlockSource#getPriority()}.
+ * Availability is summed across sources, and extraction drains lower priority values first,
+ * passing whatever remains on to the next source.
+ */
+public class CompositeBlockSource implements BlockSource {
+
+    private final List<BlockSource> sources;
+
+    public CompositeBlockSource(List<BlockSource> sources) {
+        this.sources = new ArrayList<>(sources);
+        this.sources.sort(Comparator.comparingInt(BlockSource::getPriority));
+    }
+
+    @Override
+    public boolean canProvide(IBlockState state, EntityPlayer player) {
+        for (BlockSource source : sources) {
+            if (source.canProvide(state, player)) return true;
+        }
+
+        return false;
+    }
+
+    @Override
+    public int countAvailable(IBlockState state, EntityPlayer player) {
+        long total = 0;
+
+        for (BlockSource source : sources) total += source.countAvailable(state, player);
+
+        return (int) Math.min(total, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public Int2IntMap checkAvailability(Int2IntMap requirements, EntityPlayer player) {
+        Int2IntOpenHashMap available = new Int2IntOpenHashMap(requirements.size());
+
+        for (BlockSource source : sources) {
+            for (Int2IntMap.Entry entry : source.checkAvailability(requirements, player).int2IntEntrySet()) {
+                long total = (long) available.get(entry.getIntKey()) + entry.getIntValue();
+                available.put(entry.getIntKey(), (int) Math.min(total, Integer.MAX_VALUE));
+            }
+        }
+
+        return available;
+    }
+
+    @Override
+    @Nullable
+    public ItemStack extract(IBlockState state, EntityPlayer player, boolean simulate) {
+        for (BlockSource source : sources) {
+            if (!source.canProvide(state, player)) continue;
+
+            ItemStack extracted = source.extract(state, player, simulate);
+            if (extracted != null && !extracted.isEmpty()) return extracted;
+        }
+
+        return null;
+    }
+
+    @Override
+    public Int2IntMap batchExtract(Int2IntMap requirements, EntityPlayer player, boolean simulate) {
+        Int2IntMap remainder = requirements;
+
+        for (BlockSource source : sources) {
+            if (remainder.isEmpty()) break;
+
+            remainder = source.batchExtract(remainder, player, simulate);
+        }
+
+        return remainder;
+    }
+
+    @Override
+    public String getName() {
+        StringBuilder sb = new StringBuilder();
+
+        for (BlockSource source : sources) {
+            if (sb.length() > 0) sb.append(" + ");
+            sb.append(source.getName());
+        }
+
+        return sb.toString();
+    }
+
+    @Override
+    public int getPriority() {
+        return sources.isEmpty() ? 0 : sources.get(0).getPriority();
+    }
+}
@@ -3,11 +3,11 @@
 
 package com.machineryassembler.common.autobuild;
 
-import java.util.HashMap;
-import java.util.Map;
-
 import javax.annotation.Nullable;
 
+import it.unimi.dsi.fastutil.ints.Int2IntMap;
+import it.unimi.dsi.fastutil.ints.Int2IntOpenHashMap;
+
 import net.minecraft.block.Block;
 import net.minecraft.block.state.IBlockState;
 import net.minecraft.entity.player.EntityPlayer;
@@ -85,8 +85,8 @@ public class InventoryBlockSource implements BlockSource {
     }
 
     @Override
-    public Map<String, Integer> batchExtract(Map<String, Integer> requirements, EntityPlayer player, boolean simulate) {
-        Map<String, Integer> remainder = new HashMap<>();
+    public Int2IntMap batchExtract(Int2IntMap requirements, EntityPlayer player, boolean simulate) {
+        Int2IntMap remainder = new Int2IntOpenHashMap();
 
         // Creative mode with no consumption - everything succeeds
         if (player.isCreative() && !AutobuildConfig.consumeBlocksInCreative) {
@@ -105,10 +105,10 @@ public class InventoryBlockSource implements BlockSource {
             }
         }
 
-        for (Map.Entry<String, Integer> entry : requirements.entrySet()) {
-            String key = entry.getKey();
-            int needed = entry.getValue();
-            IBlockState state = BlockSourceUtils.keyToState(key);
+        for (Int2IntMap.Entry entry : requirements.int2IntEntrySet()) {
+            int key = entry.getIntKey();
+            int needed = entry.getIntValue();
+            IBlockState state = BlockSourceUtils.idToState(key);
 
             if (state == null) {
                 remainder.put(key, needed);
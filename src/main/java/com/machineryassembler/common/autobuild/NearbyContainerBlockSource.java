@@ -0,0 +1,255 @@
+// SPDX-License-Identifier: GPL-3.0-or-later
+// SPDX-FileCopyrightText: 2026 Machinery Assembler Contributors
+
+package com.machineryassembler.common.autobuild;
+
+import java.util.List;
+import java.util.Set;
+
+import javax.annotation.Nullable;
+
+import it.unimi.dsi.fastutil.ints.Int2IntMap;
+import it.unimi.dsi.fastutil.ints.Int2IntOpenHashMap;
+import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
+import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.objects.ObjectArrayList;
+import it.unimi.dsi.fastutil.objects.ReferenceOpenHashSet;
+
+import net.minecraft.block.Block;
+import net.minecraft.block.state.IBlockState;
+import net.minecraft.entity.player.EntityPlayer;
+import net.minecraft.entity.player.EntityPlayerMP;
+import net.minecraft.item.Item;
+import net.minecraft.item.ItemBlock;
+import net.minecraft.item.ItemStack;
+import net.minecraft.tileentity.TileEntity;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.ILockableContainer;
+import net.minecraft.world.WorldServer;
+import net.minecraft.world.chunk.Chunk;
+import net.minecraftforge.items.CapabilityItemHandler;
+import net.minecraftforge.items.IItemHandler;
+
+import com.machineryassembler.common.config.AutobuildConfig;
+
+
+/**
+ * Block source that pulls blocks from item handlers (chests, drawers, barrels, ...) near a position.
+ * <p>
+ * Instances are created per autobuild request: the constructor scans the tile entities of already
+ * loaded chunks within {@link AutobuildConfig#nearbyContainerRadius} of an area once, and indexes every
+ * (Item, meta) to the handler slots holding it. Availability checks and extraction then only
+ * touch the index, never rescanning the world. Unloaded chunks are skipped, never loaded.
+ * <p>
+ * Only containers the requesting player could reach and open themselves are indexed: they must be in chunks
+ * the player is watching, locked containers need the player to hold their key, and spawn protection applies.
+ * Protection mods' claims are not consulted, which is why the source is disabled by default.
+ */
+public class NearbyContainerBlockSource implements BlockSource {
+
+    /** Hard cap on indexed handlers, so a storage room full of drawers can't stall the tick. */
+    public static final int MAX_HANDLERS = 256;
+
+    private final Int2ObjectMap<List<SlotRef>> slotsByItem = new Int2ObjectOpenHashMap<>();
+    private final Int2IntOpenHashMap countsByItem = new Int2IntOpenHashMap();
+    private int handlerCount = 0;
+
+    /**
+     * @param world The world to search
+     * @param player The player requesting the build, whose reach and access to containers is checked
+     * @param from One corner of the area to search around (inclusive)
+     * @param to The opposite corner of the area to search around (inclusive)
+     * @param radius How far beyond the area to search
+     */
+    public NearbyContainerBlockSource(WorldServer world, EntityPlayerMP player, BlockPos from, BlockPos to, int radius) {
+        index(world, player, from, to, radius);
+    }
+
+    /**
+     * Scan loaded chunks around the area and index the contents of their item handlers.
+     */
+    private void index(WorldServer world, EntityPlayerMP player, BlockPos from, BlockPos to, int radius) {
+        int minX = Math.min(from.getX(), to.getX()) - radius;
+        int maxX = Math.max(from.getX(), to.getX()) + radius;
+        int minY = Math.max(Math.min(from.getY(), to.getY()) - radius, 0);
+        int maxY = Math.min(Math.max(from.getY(), to.getY()) + radius, world.getHeight() - 1);
+        int minZ = Math.min(from.getZ(), to.getZ()) - radius;
+        int maxZ = Math.max(from.getZ(), to.getZ()) + radius;
+
+        // Vanilla double chests expose a combined handler on both halves, so the same slot
+        // would be indexed twice. Their wrappers return the backing stacks, which we dedupe on.
+        Set<ItemStack> seenStacks = new ReferenceOpenHashSet<>();
+
+        for (int cx = minX >> 4; cx <= maxX >> 4; cx++) {
+            for (int cz = minZ >> 4; cz <= maxZ >> 4; cz++) {
+                Chunk chunk = world.getChunkProvider().getLoadedChunk(cx, cz);
+                if (chunk == null) continue;
+
+                // Containers kept loaded far from the player are out of their reach
+                if (!world.getPlayerChunkMap().isPlayerWatchingChunk(player, cx, cz)) continue;
+
+                for (TileEntity te : chunk.getTileEntityMap().values()) {
+                    if (handlerCount >= MAX_HANDLERS) return;
+                    if (te.isInvalid()) continue;
+
+                    BlockPos pos = te.getPos();
+                    if (pos.getX() < minX || pos.getX() > maxX) continue;
+                    if (pos.getY() < minY || pos.getY() > maxY) continue;
+                    if (pos.getZ() < minZ || pos.getZ() > maxZ) continue;
+
+                    if (!te.hasCapability(CapabilityItemHandler.ITEM_HANDLER_CAPABILITY, null)) continue;
+                    if (!canAccess(world, player, te)) continue;
+
+                    IItemHandler handler = te.getCapability(CapabilityItemHandler.ITEM_HANDLER_CAPABILITY, null);
+                    if (handler == null) continue;
+
+                    indexHandler(handler, seenStacks);
+                    handlerCount++;
+                }
+            }
+        }
+    }
+
+    /**
+     * Check whether the player could open a container themselves.
+     */
+    private static boolean canAccess(WorldServer world, EntityPlayer player, TileEntity te) {
+        if (player.isSpectator()) return false;
+        if (te instanceof ILockableContainer && !player.canOpen(((ILockableContainer) te).getLockCode())) return false;
+
+        return world.isBlockModifiable(player, te.getPos());
+    }
+
+    private void indexHandler(IItemHandler handler, Set<ItemStack> seenStacks) {
+        for (int slot = 0; slot < handler.getSlots(); slot++) {
+            ItemStack stack = handler.getStackInSlot(slot);
+            if (stack.isEmpty()) continue;
+            if (!seenStacks.add(stack)) continue;
+
+            int key = itemKey(stack.getItem(), stack.getMetadata());
+            slotsByItem.computeIfAbsent(key, k -> new ObjectArrayList<>()).add(new SlotRef(handler, slot, stack.getCount()));
+            countsByItem.addTo(key, stack.getCount());
+        }
+    }
+
+    @Override
+    public boolean canProvide(IBlockState state, EntityPlayer player) {
+        return countAvailable(state, player) > 0;
+    }
+
+    @Override
+    public int countAvailable(IBlockState state, EntityPlayer player) {
+        int key = stateToItemKey(state);
+        if (key < 0) return 0;
+
+        return countsByItem.get(key);
+    }
+
+    @Override
+    @Nullable
+    public ItemStack extract(IBlockState state, EntityPlayer player, boolean simulate) {
+        int key = stateToItemKey(state);
+        if (key < 0) return null;
+
+        List<SlotRef> slots = slotsByItem.get(key);
+        if (slots == null) return null;
+
+        for (SlotRef ref : slots) {
+            if (ref.count <= 0) continue;
+
+            ItemStack extracted = ref.handler.extractItem(ref.slot, 1, simulate);
+            if (extracted.isEmpty()) continue;
+
+            if (!simulate) {
+                ref.count -= extracted.getCount();
+                countsByItem.addTo(key, -extracted.getCount());
+            }
+
+            return extracted;
+        }
+
+        return null;
+    }
+
+    @Override
+    public Int2IntMap batchExtract(Int2IntMap requirements, EntityPlayer player, boolean simulate) {
+        Int2IntMap remainder = new Int2IntOpenHashMap();
+
+        for (Int2IntMap.Entry entry : requirements.int2IntEntrySet()) {
+            int stateId = entry.getIntKey();
+            int needed = entry.getIntValue();
+            IBlockState state = BlockSourceUtils.idToState(stateId);
+            int key = state != null ? stateToItemKey(state) : -1;
+            List<SlotRef> slots = key >= 0 ? slotsByItem.get(key) : null;
+
+            if (slots == null) {
+                remainder.put(stateId, needed);
+                continue;
+            }
+
+            int extracted = 0;
+
+            for (SlotRef ref : slots) {
+                if (extracted >= needed) break;
+                if (ref.count <= 0) continue;
+
+                int toExtract = Math.min(ref.count, needed - extracted);
+
+                if (simulate) {
+                    extracted += toExtract;
+                    continue;
+                }
+
+                // The index may be stale if another mod touched the handler, trust the actual result
+                int got = ref.handler.extractItem(ref.slot, toExtract, false).getCount();
+                ref.count -= got;
+                countsByItem.addTo(key, -got);
+                extracted += got;
+            }
+
+            if (extracted < needed) remainder.put(stateId, needed - extracted);
+        }
+
+        return remainder;
+    }
+
+    @Override
+    public String getName() {
+        return "Nearby Containers";
+    }
+
+    @Override
+    public int getPriority() {
+        return 50;
+    }
+
+    /**
+     * Maps a block state to the (Item, meta) key of its ItemBlock, or -1 if it has no item form.
+     */
+    private static int stateToItemKey(IBlockState state) {
+        Block block = state.getBlock();
+        Item item = Item.getItemFromBlock(block);
+        if (!(item instanceof ItemBlock)) return -1;
+
+        return itemKey(item, block.getMetaFromState(state));
+    }
+
+    private static int itemKey(Item item, int meta) {
+        return (Item.getIdFromItem(item) << 16) | (meta & 0xFFFF);
+    }
+
+    /**
+     * A handler slot holding an indexed item, with the count we believe is still in it.
+     */
+    private static class SlotRef {
+        final IItemHandler handler;
+        final int slot;
+        int count;
+
+        SlotRef(IItemHandler handler, int slot, int count) {
+            this.handler = handler;
+            this.slot = slot;
+            this.count = count;
+        }
+    }
+}
@@ -0,0 +1,78 @@
+// SPDX-License-Identifier: GPL-3.0-or-later
+// SPDX-FileCopyrightText: 2026 Machinery Assembler Contributors
+
+package com.machineryassembler.common.autobuild;
+
+import java.util.Arrays;
+
+import net.minecraft.block.state.IBlockState;
+import net.minecraft.util.math.BlockPos;
+
+import com.machineryassembler.common.structure.BlockRequirement;
+
+
+/**
+ * Compact, ordered queue of the positions an autobuild still has to place.
+ * Only positions that are not already correct and have material reserved for them are added,
+ * so every entry is a real placement. Stored as parallel arrays to avoid an object per entry.
+ */
+class PlacementQueue {
+
+    private long[] positions;
+    private int[] patternIndices;
+    private IBlockState[] states;
+    private BlockRequirement[] requirements;
+    private int size = 0;
+
+    PlacementQueue(int expectedSize) {
+        int capacity = Math.max(expectedSize, 16);
+        positions = new long[capacity];
+        patternIndices = new int[capacity];
+        states = new IBlockState[capacity];
+        requirements = new BlockRequirement[capacity];
+    }
+
+    /**
+     * Add a position to place.
+     *
+     * @param worldPos The absolute position
+     * @param patternIndex The index of the position in the sorted pattern, to persist the queue compactly
+     * @param state The state to place, with its material already reserved
+     * @param requirement The requirement the state was picked from, for revalidation
+     */
+    void add(BlockPos worldPos, int patternIndex, IBlockState state, BlockRequirement requirement) {
+        if (size == positions.length) {
+            int capacity = size + (size >> 1);
+            positions = Arrays.copyOf(positions, capacity);
+            patternIndices = Arrays.copyOf(patternIndices, capacity);
+            states = Arrays.copyOf(states, capacity);
+            requirements = Arrays.copyOf(requirements, capacity);
+        }
+
+        positions[size] = worldPos.toLong();
+        patternIndices[size] = patternIndex;
+        states[size] = state;
+        requirements[size] = requirement;
+        size++;
+    }
+
+    int size() {
+        return size;
+    }
+
+    BlockPos getPos(int index) {
+        return BlockPos.fromLong(positions[index]);
+    }
+
+    int getPatternIndex(int index) {
+        return patternIndices[index];
+    }
+
+    IBlockState getState(int index) {
+        return states[index];
+    }
+
+    BlockRequirement getRequirement(int index) {
+        return requirements[index];
+    }
+}
@@ -0,0 +1,200 @@
+// SPDX-License-Identifier: GPL-3.0-or-later
+// SPDX-FileCopyrightText: 2026 Machinery Assembler Contributors
+
+package com.machineryassembler.common.autobuild;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import javax.annotation.Nullable;
+
+import net.minecraft.server.MinecraftServer;
+
+import com.machineryassembler.common.config.AutobuildConfig;
+
+
+/**
+ * Global scheduler for all active autobuild placement tasks.
+ * <p>
+ * All tasks share a single per-tick time budget ({@link AutobuildConfig#tickBudgetMicros}),
+ * handed out one block at a time, round-robin across players and then across each player's tasks,
+ * so neither many builds nor many players multiply the cost of a tick.
+ * The budget shrinks linearly once the recent MSPT goes above {@link AutobuildConfig#backoffMspt},
+ * down to a single block per tick when the server can't keep up with 50 ms per tick.
+ * The server records a tick's time before its END phase, where autobuild runs, so autobuild's own
+ * recent time is added to it.
+ * <p>
+ * With a budget of 0, every task falls back to placing {@link AutobuildConfig#blocksPerTick} on its own.
+ * <p>
+ * Bulk-mode tasks flush their deferred updates after the placement loop. Any time spent beyond the
+ * budget, flushes included, is carried over and taken from the next tick's budget.
+ */
+class PlacementScheduler {
+
+    /** Vanilla tick length, in milliseconds. */
+    private static final double TICK_MS = 50.0;
+
+    /** Number of recent ticks averaged to estimate the load. */
+    private static final int MSPT_WINDOW = 20;
+
+    private static final List<ThrottledPlacementTask> activeTasks = new ArrayList<>();
+
+    // Rotates which player gets served first each tick
+    private static int playerRotation = 0;
+
+    // Time spent over budget in previous ticks, to be paid back
+    private static long overrunNanos = 0;
+
+    // Time spent by autobuild in recent ticks, which the server's tick times leave out
+    private static final long[] ownTickNanos = new long[MSPT_WINDOW];
+    private static int ownTickIndex = 0;
+
+    private PlacementScheduler() {
+    }
+
+    static void submit(ThrottledPlacementTask task) {
+        activeTasks.add(task);
+    }
+
+    /**
+     * Drop all tasks when the server stops. Their progress was saved with their world.
+     */
+    static void clear() {
+        activeTasks.clear();
+        overrunNanos = 0;
+        Arrays.fill(ownTickNanos, 0);
+    }
+
+    /**
+     * Run one tick of placement across all active tasks.
+     */
+    static void tick(@Nullable MinecraftServer server) {
+        long start = System.nanoTime();
+
+        tickTasks(server, start);
+
+        ownTickNanos[ownTickIndex] = System.nanoTime() - start;
+        ownTickIndex = (ownTickIndex + 1) % MSPT_WINDOW;
+    }
+
+    private static void tickTasks(@Nullable MinecraftServer server, long start) {
+        if (activeTasks.isEmpty()) return;
+
+        activeTasks.removeIf(ThrottledPlacementTask::finishIfDone);
+        if (activeTasks.isEmpty()) return;
+
+        if (AutobuildConfig.tickBudgetMicros <= 0) {
+            for (ThrottledPlacementTask task : activeTasks) task.placeAtFixedRate();
+            for (ThrottledPlacementTask task : activeTasks) task.flush();
+        } else {
+            long budget = computeBudgetNanos(server) - overrunNanos;
+
+            placeWithinBudget(budget);
+            for (ThrottledPlacementTask task : activeTasks) task.flush();
+
+            overrunNanos = Math.max(0, System.nanoTime() - start - budget);
+        }
+
+        activeTasks.removeIf(ThrottledPlacementTask::finishIfDone);
+    }
+
+    /**
+     * Place blocks round-robin across players until the budget runs out or every task is done.
+     * At least one block is always placed, so builds still progress on an overloaded server.
+     */
+    private static void placeWithinBudget(long budgetNanos) {
+        List<Lane> lanes = groupByPlayer();
+        Collections.rotate(lanes, -(playerRotation++ % lanes.size()));
+
+        long deadline = System.nanoTime() + budgetNanos;
+        boolean placedAny = true;
+
+        while (placedAny) {
+            placedAny = false;
+
+            for (Lane lane : lanes) {
+                ThrottledPlacementTask task = lane.next();
+                if (task == null) continue;
+
+                task.placeNext();
+                placedAny = true;
+
+                if (System.nanoTime() >= deadline) return;
+            }
+        }
+    }
+
+    private static List<Lane> groupByPlayer() {
+        Map<UUID, Lane> byPlayer = new LinkedHashMap<>();
+
+        for (ThrottledPlacementTask task : activeTasks) {
+            byPlayer.computeIfAbsent(task.getPlayerId(), k -> new Lane()).tasks.add(task);
+        }
+
+        return new ArrayList<>(byPlayer.values());
+    }
+
+    /**
+     * Compute this tick's budget from the configured maximum and the recent server load.
+     */
+    private static long computeBudgetNanos(@Nullable MinecraftServer server) {
+        long maxBudget = AutobuildConfig.tickBudgetMicros * 1000L;
+        if (server == null) return maxBudget;
+
+        double mspt = getRecentMspt(server);
+        double backoff = Math.min(AutobuildConfig.backoffMspt, TICK_MS);
+        if (mspt <= backoff) return maxBudget;
+        if (mspt >= TICK_MS) return 0;
+
+        double headroom = (TICK_MS - mspt) / (TICK_MS - backoff);
+
+        return (long) (maxBudget * headroom);
+    }
+
+    /**
+     * Average duration of the last {@link #MSPT_WINDOW} ticks, autobuild included, in milliseconds.
+     * The current tick is already recorded by the time the END phase of the tick event fires,
+     * but without the time autobuild spends in it.
+     */
+    private static double getRecentMspt(MinecraftServer server) {
+        long[] times = server.tickTimeArray;
+        int current = server.getTickCounter();
+        int window = Math.min(MSPT_WINDOW, times.length);
+        long total = 0;
+
+        for (int i = 0; i < window; i++) total += times[Math.floorMod(current - i, times.length)];
+
+        long own = 0;
+        for (long nanos : ownTickNanos) own += nanos;
+
+        return (total / (double) window + own / (double) MSPT_WINDOW) / 1.0E6;
+    }
+
+    /**
+     * The tasks of a single player, served round-robin.
+     */
+    private static class Lane {
+        final List<ThrottledPlacementTask> tasks = new ArrayList<>();
+        int cursor = 0;
+
+        /**
+         * @return The next task that still has blocks to place, or null if all are done
+         */
+        @Nullable
+        ThrottledPlacementTask next() {
+            for (int i = 0; i < tasks.size(); i++) {
+                ThrottledPlacementTask task = tasks.get(cursor);
+                cursor = (cursor + 1) % tasks.size();
+
+                if (!task.isDone()) return task;
+            }
+
+            return null;
+        }
+    }
+}
@@ -3,22 +3,29 @@
 
 package com.machineryassembler.common.autobuild;
 
+import java.util.AbstractMap;
 import java.util.ArrayList;
 import java.util.Comparator;
-import java.util.HashMap;
-import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import it.unimi.dsi.fastutil.ints.Int2IntMap;
+import it.unimi.dsi.fastutil.ints.Int2IntOpenHashMap;
 
-import net.minecraft.block.state.IBlockState;
 import net.minecraft.entity.player.EntityPlayerMP;
-import net.minecraft.init.Blocks;
+import net.minecraft.nbt.NBTTagCompound;
+import net.minecraft.server.MinecraftServer;
 import net.minecraft.util.ResourceLocation;
 import net.minecraft.util.math.BlockPos;
 import net.minecraft.util.math.ChunkPos;
+import net.minecraft.world.World;
 import net.minecraft.world.WorldServer;
 import net.minecraftforge.common.ForgeChunkManager;
 import net.minecraftforge.common.MinecraftForge;
+import net.minecraftforge.fml.common.FMLCommonHandler;
 import net.minecraftforge.fml.common.eventhandler.SubscribeEvent;
 import net.minecraftforge.fml.common.gameevent.TickEvent;
 
@@ -27,9 +34,6 @@ import com.machineryassembler.common.config.AutobuildConfig;
 import com.machineryassembler.common.network.NetworkHandler;
 import com.machineryassembler.common.network.PacketAutobuildMissingBlocks;
 import com.machineryassembler.common.network.PacketAutobuildObstruction;
-import com.machineryassembler.common.network.PacketAutobuildPlacementIssue;
-import com.machineryassembler.common.network.PacketAutobuildPlacementIssue.IssueType;
-import com.machineryassembler.common.network.PacketAutobuildPlacementIssue.PlacementIssue;
 import com.machineryassembler.common.network.PacketAutobuildResult;
 import com.machineryassembler.common.network.PacketAutobuildResult.ResultType;
 import com.machineryassembler.common.structure.BlockRequirement;
@@ -42,14 +46,30 @@ import com.machineryassembler.common.structure.StructureRegistry;
  * Server-side handler for autobuild requests.
  * Manages chunk loading, obstruction detection, block extraction, and throttled placement.
  * Placement is spread across multiple ticks based on {@link AutobuildConfig#blocksPerTick}.
+ * Structures of at least {@link AutobuildConfig#asyncPlanningThreshold} positions are planned
+ * off the server thread from a snapshot of their chunks.
+ * Requests go through {@link AutobuildAdmission} first, and may wait in its queue before starting.
  */
 public class ServerAutobuildHandler {
 
+    /** Ticket mod data key linking a chunk loading ticket to its saved task. */
+    private static final String TASK_ID_TAG = "taskId";
+
+    /** Single worker thread classifying big structures off the server thread. */
+    private static final ExecutorService PLANNER = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "Machinery Assembler Autobuild Planner");
+        thread.setDaemon(true);
+
+        return thread;
+    });
+
     /**
      * Handle an autobuild request from a client.
+     *
+     * @param rotation Clockwise quarter turns of the structure, as previewed by the client
      */
-    public static void handleAutobuildRequest(EntityPlayerMP player, ResourceLocation structureId, BlockPos origin) {
-        WorldServer world = player.getServerWorld();
+    public static void handleAutobuildRequest(EntityPlayerMP player, ResourceLocation structureId, BlockPos origin,
+                                              int rotation) {
         Structure structure = StructureRegistry.getRegistry().getStructure(structureId);
 
         if (structure == null) {
@@ -72,36 +92,125 @@ public class ServerAutobuildHandler {
             return;
         }
 
-        StructurePattern pattern = structure.getPattern();
+        // Chunks are only forced once the request is admitted
+        registerTickHandler();
+        AutobuildAdmission.submit(player, structureId, origin, rotation, structure.getPattern().getPattern().size());
+    }
+
+    /**
+     * Start an admitted request: force its chunks and plan it.
+     * Rotated patterns come from the structure's cache, so rotation costs nothing per request.
+     */
+    static void startBuild(EntityPlayerMP player, ResourceLocation structureId, BlockPos origin, int rotation) {
+        WorldServer world = player.getServerWorld();
+        Structure structure = StructureRegistry.getRegistry().getStructure(structureId);
+
+        // Structures may have been reloaded while the request was waiting
+        if (structure == null) {
+            NetworkHandler.INSTANCE.sendTo(
+                new PacketAutobuildResult(ResultType.FAILED, 0, 0, 0), player);
+            AutobuildAdmission.release(AutobuildAdmission.keyOf(world, structureId, origin));
+
+            return;
+        }
+
+        StructurePattern pattern = structure.getRotatedPattern(rotation);
         ForgeChunkManager.Ticket ticket = loadChunks(world, pattern, origin);
 
+        int asyncThreshold = AutobuildConfig.asyncPlanningThreshold;
+        if (asyncThreshold > 0 && pattern.getPattern().size() >= asyncThreshold) {
+            planAsync(world, player, structureId, pattern, origin, rotation, ticket);
+
+            return;
+        }
+
+        // Classify every position once, everything below works from this
+        executePlan(world, player, structureId, pattern, origin, rotation, ticket,
+            BuildPlan.classify(world, pattern, origin));
+    }
+
+    /**
+     * Copy the structure's chunk sections and pattern, classify them on the planner thread,
+     * then reconcile and execute the plan back on the server thread.
+     */
+    private static void planAsync(WorldServer world, EntityPlayerMP player, ResourceLocation structureId,
+                                  StructurePattern livePattern, BlockPos origin, int rotation,
+                                  ForgeChunkManager.Ticket ticket) {
+        MinecraftServer server = world.getMinecraftServer();
+        UUID playerId = player.getUniqueID();
+
+        // The structure's own pattern is replaced on reload or sync while the planner may be reading it
+        StructurePattern pattern = new StructurePattern(livePattern);
+        ChunkSnapshot snapshot = ChunkSnapshot.capture(world, pattern.getMin().add(origin), pattern.getMax().add(origin));
+
+        PLANNER.execute(() -> {
+            BuildPlan plan = null;
+
+            try {
+                plan = BuildPlan.classify(snapshot, pattern, origin);
+            } catch (RuntimeException e) {
+                MachineryAssembler.LOGGER.error("Failed to plan autobuild for " + structureId, e);
+            }
+
+            BuildPlan result = plan;
+
+            server.addScheduledTask(() -> {
+                EntityPlayerMP requester = server.getPlayerList().getPlayerByUUID(playerId);
+
+                // Nothing was extracted yet, so dropping the request here loses nothing
+                if (result == null || requester == null) {
+                    if (requester != null) {
+                        NetworkHandler.INSTANCE.sendTo(
+                            new PacketAutobuildResult(ResultType.FAILED, 0, 0, 0), requester);
+                    }
+                    if (ticket != null) ForgeChunkManager.releaseTicket(ticket);
+                    AutobuildAdmission.release(AutobuildAdmission.keyOf(world, structureId, origin));
+
+                    return;
+                }
+
+                result.reconcile(world);
+                executePlan(world, requester, structureId, pattern, origin, rotation, ticket, result);
+            });
+        });
+    }
+
+    /**
+     * Report obstructions and missing blocks, extract materials and start placing, following a plan.
+     */
+    private static void executePlan(WorldServer world, EntityPlayerMP player, ResourceLocation structureId,
+                                    StructurePattern pattern, BlockPos origin, int rotation,
+                                    ForgeChunkManager.Ticket ticket, BuildPlan plan) {
         // Phase 1: Check for obstructions (TODO: if allow partial builds, we should highlight, but not abort)
-        List<BlockPos> obstructed = checkObstructions(world, pattern, origin);
+        List<BlockPos> obstructed = plan.getObstructed();
         if (!obstructed.isEmpty()) {
             boolean aborted = !AutobuildConfig.allowPartialBuilds;
-            NetworkHandler.INSTANCE.sendTo(new PacketAutobuildObstruction(obstructed), player);
+            for (PacketAutobuildObstruction fragment : PacketAutobuildObstruction.split(origin, obstructed)) {
+                NetworkHandler.INSTANCE.sendTo(fragment, player);
+            }
 
             if (aborted) {
                 NetworkHandler.INSTANCE.sendTo(
                     new PacketAutobuildResult(ResultType.FAILED, 0, 0, obstructed.size()), player);
                 if (ticket != null) ForgeChunkManager.releaseTicket(ticket);
+                AutobuildAdmission.release(AutobuildAdmission.keyOf(world, structureId, origin));
 
                 return;
             }
         }
 
         // Phase 2: Check block availability
-        BlockSource source = InventoryBlockSource.INSTANCE;  // FIXME: use a provider manager!
-        Map<String, Integer> required = collectRequiredBlocks(world, pattern, origin);
-        Map<String, Integer> available = source.checkAvailability(required, player);
+        BlockSource source = createBlockSource(world, player, pattern, origin);
+        Int2IntMap required = plan.getRequired();
+        Int2IntMap available = source.checkAvailability(required, player);
 
         // Calculate missing = required - available
-        Map<String, Integer> missing = new HashMap<>();
+        Int2IntMap missing = new Int2IntOpenHashMap();
 
-        for (Map.Entry<String, Integer> entry : required.entrySet()) {
-            String key = entry.getKey();
-            int need = entry.getValue();
-            int have = available.getOrDefault(key, 0);
+        for (Int2IntMap.Entry entry : required.int2IntEntrySet()) {
+            int key = entry.getIntKey();
+            int need = entry.getIntValue();
+            int have = available.get(key);
 
             if (have < need) missing.put(key, need - have);
         }
@@ -115,6 +224,7 @@ public class ServerAutobuildHandler {
                 NetworkHandler.INSTANCE.sendTo(
                     new PacketAutobuildResult(ResultType.FAILED, 0, 0, 0), player);
                 if (ticket != null) ForgeChunkManager.releaseTicket(ticket);
+                AutobuildAdmission.release(AutobuildAdmission.keyOf(world, structureId, origin));
 
                 return;
             }
@@ -122,12 +232,12 @@ public class ServerAutobuildHandler {
 
         // Phase 3: Extract blocks
         // TODO: handle fluids, we need to check buckets and containers, extract, and insert back (at the feet if necessary)
-        Map<String, Integer> toExtract = new HashMap<>(required);
+        Int2IntMap toExtract = new Int2IntOpenHashMap(required);
 
         // Subtract missing blocks if partial builds allowed
-        for (Map.Entry<String, Integer> entry : missing.entrySet()) {
-            String key = entry.getKey();
-            int avail = toExtract.getOrDefault(key, 0) - entry.getValue();
+        for (Int2IntMap.Entry entry : missing.int2IntEntrySet()) {
+            int key = entry.getIntKey();
+            int avail = toExtract.get(key) - entry.getIntValue();
 
             if (avail <= 0) {
                 toExtract.remove(key);
@@ -137,24 +247,117 @@ public class ServerAutobuildHandler {
         }
 
         // Build the extracted map (toExtract - remainder)
-        Map<String, Integer> remainder = source.batchExtract(toExtract, player, false);
-        Map<String, Integer> extractedCounts = new HashMap<>();
+        Int2IntMap remainder = source.batchExtract(toExtract, player, false);
+        Int2IntMap extractedCounts = new Int2IntOpenHashMap();
 
-        for (Map.Entry<String, Integer> entry : toExtract.entrySet()) {
-            String key = entry.getKey();
-            int requested = entry.getValue();
-            int notExtracted = remainder.getOrDefault(key, 0);
+        for (Int2IntMap.Entry entry : toExtract.int2IntEntrySet()) {
+            int key = entry.getIntKey();
+            int requested = entry.getIntValue();
+            int notExtracted = remainder.get(key);
             int actuallyExtracted = requested - notExtracted;
 
             if (actuallyExtracted > 0) extractedCounts.put(key, actuallyExtracted);
         }
 
-        // Phase 4: Build sorted block list and start throttled placement
-        List<Map.Entry<BlockPos, BlockRequirement>> sortedBlocks = prepareSortedBlocks(pattern);
+        // Phase 4: Queue the positions that need placing and have material, then start throttled placement
+        PlacementQueue queue = plan.buildQueue(extractedCounts);
+
+        int totalRequired = 0;
+        for (int count : required.values()) totalRequired += count;
+
+        // Obstructed positions get no material, they count as failed right away
+        int patternSize = plan.size();
+        int skipped = plan.getSatisfiedCount();
+        int failed = obstructed.size() + totalRequired - queue.size();
+
+        ThrottledPlacementTask task = new ThrottledPlacementTask(world, queue, skipped, failed, missing,
+            player.getUniqueID(), ticket, structureId, origin, rotation, patternSize,
+            ThrottledPlacementTask.fingerprint(pattern));
+        AutobuildAdmission.updateBlocks(AutobuildAdmission.keyOf(world, structureId, origin), queue.size());
+        startTask(world, task, ticket);
+    }
+
+    /**
+     * Start placing a task, and track it for saving if it holds a chunk loading ticket.
+     * Tasks without a ticket can't be resumed, since resuming is driven by the ticket callback.
+     */
+    private static void startTask(WorldServer world, ThrottledPlacementTask task, ForgeChunkManager.Ticket ticket) {
+        if (ticket != null) {
+            ticket.getModData().setString(TASK_ID_TAG, task.getId());
+            AutobuildSavedData.get(world).track(task);
+        }
 
-        ThrottledPlacementTask task = new ThrottledPlacementTask(
-            world, origin, sortedBlocks, extractedCounts, missing, player, ticket, structureId);
-        task.start();
+        registerTickHandler();
+        PlacementScheduler.submit(task);
+    }
+
+    /**
+     * Resume the tasks saved with a world, from the chunk loading tickets Forge restored for it.
+     * Tickets without a matching saved task are released.
+     */
+    public static void resumeTasks(List<ForgeChunkManager.Ticket> tickets, World world) {
+        if (!(world instanceof WorldServer)) {
+            for (ForgeChunkManager.Ticket ticket : tickets) ForgeChunkManager.releaseTicket(ticket);
+
+            return;
+        }
+
+        WorldServer worldServer = (WorldServer) world;
+        AutobuildSavedData data = AutobuildSavedData.get(worldServer);
+
+        for (ForgeChunkManager.Ticket ticket : tickets) {
+            NBTTagCompound saved = data.claim(ticket.getModData().getString(TASK_ID_TAG));
+            ThrottledPlacementTask task = saved != null ? ThrottledPlacementTask.readFromNBT(worldServer, saved, ticket) : null;
+
+            if (task == null) {
+                ForgeChunkManager.releaseTicket(ticket);
+                continue;
+            }
+
+            // Forge restores the ticket, but its chunks have to be forced again
+            ResourceLocation structureId = new ResourceLocation(saved.getString("structure"));
+            BlockPos origin = BlockPos.fromLong(saved.getLong("origin"));
+            Structure structure = StructureRegistry.getRegistry().getStructure(structureId);
+            forceChunks(ticket, structure.getRotatedPattern(task.getRotation()), origin);
+
+            // Resumed builds were admitted before the restart, they take their slot back regardless of limits
+            AutobuildAdmission.restore(worldServer, structureId, origin, task.getRotation(), task.getPlayerId(),
+                saved.getIntArray("states").length);
+            startTask(worldServer, task, ticket);
+            MachineryAssembler.LOGGER.info("Resumed autobuild for {} at {}", structureId, origin);
+        }
+    }
+
+    /**
+     * Forget running tasks when the server stops, they are resumed from the saved worlds.
+     */
+    public static void onServerStopped() {
+        PlacementScheduler.clear();
+        AutobuildAdmission.clear();
+    }
+
+    /**
+     * Build the chain of block sources for a request: the player's inventory first,
+     * then containers near the player or the build, if enabled.
+     */
+    private static BlockSource createBlockSource(WorldServer world, EntityPlayerMP player,
+                                                 StructurePattern pattern, BlockPos origin) {
+        List<BlockSource> sources = new ArrayList<>();
+        sources.add(InventoryBlockSource.INSTANCE);
+
+        if (AutobuildConfig.nearbyContainerRadius > 0) {
+            int radius = AutobuildConfig.nearbyContainerRadius;
+
+            if (AutobuildConfig.searchContainersAroundBuild) {
+                sources.add(new NearbyContainerBlockSource(world, player,
+                    pattern.getMin().add(origin), pattern.getMax().add(origin), radius));
+            } else {
+                BlockPos playerPos = player.getPosition();
+                sources.add(new NearbyContainerBlockSource(world, player, playerPos, playerPos, radius));
+            }
+        }
+
+        return new CompositeBlockSource(sources);
     }
 
     /**
@@ -170,6 +373,15 @@ public class ServerAutobuildHandler {
             return null;
         }
 
+        forceChunks(ticket, pattern, origin);
+
+        return ticket;
+    }
+
+    /**
+     * Force all chunks covered by the structure.
+     */
+    private static void forceChunks(ForgeChunkManager.Ticket ticket, StructurePattern pattern, BlockPos origin) {
         BlockPos min = pattern.getMin().add(origin);
         BlockPos max = pattern.getMax().add(origin);
 
@@ -183,67 +395,35 @@ public class ServerAutobuildHandler {
                 ForgeChunkManager.forceChunk(ticket, new ChunkPos(cx, cz));
             }
         }
-
-        return ticket;
     }
 
     /**
-     * Check for obstructions - blocks that are non-air and don't match the structure.
+     * Placement order: 16-high section layers bottom to top, then chunk by chunk within a layer,
+     * then bottom to top, Z, X within each chunk section.
+     * Consecutive placements stay in the same chunk section (same storage, dirty chunk, lighting
+     * region and client re-mesh), while support blocks still come before what rests on them
+     * at the section level.
      */
-    private static List<BlockPos> checkObstructions(WorldServer world, StructurePattern pattern, BlockPos origin) {
-        List<BlockPos> obstructed = new ArrayList<>();
-
-        for (Map.Entry<BlockPos, BlockRequirement> entry : pattern.getPattern().entrySet()) {
-            BlockPos relPos = entry.getKey();
-            BlockPos worldPos = origin.add(relPos);
-            BlockRequirement requirement = entry.getValue();
-
-            IBlockState currentState = world.getBlockState(worldPos);
-
-            // Skip if already correct
-            if (requirement.matches(world, worldPos, false)) continue;
-
-            // Check if there's an obstruction (non-air, non-replaceable block)
-            if (currentState.getBlock() != Blocks.AIR &&
-                !currentState.getBlock().isReplaceable(world, worldPos)) {
-                obstructed.add(worldPos);
-            }
-        }
-
-        return obstructed;
-    }
+    private static final Comparator<Map.Entry<BlockPos, BlockRequirement>> PLACEMENT_ORDER = Comparator
+        .comparingInt((Map.Entry<BlockPos, BlockRequirement> e) -> e.getKey().getY() >> 4)
+        .thenComparingInt(e -> e.getKey().getX() >> 4)
+        .thenComparingInt(e -> e.getKey().getZ() >> 4)
+        .thenComparingInt(e -> e.getKey().getY())
+        .thenComparingInt(e -> e.getKey().getZ())
+        .thenComparingInt(e -> e.getKey().getX());
 
     /**
-     * Collect all required blocks (those not already placed correctly).
+     * Prepare the sorted block list for placement, keyed by world position (see {@link #PLACEMENT_ORDER}).
+     * Chunk boundaries depend on the origin, so the order has to be computed on world positions.
      */
-    private static Map<String, Integer> collectRequiredBlocks(WorldServer world, StructurePattern pattern, BlockPos origin) {
-        Map<String, Integer> required = new HashMap<>();
+    static List<Map.Entry<BlockPos, BlockRequirement>> prepareSortedBlocks(StructurePattern pattern, BlockPos origin) {
+        List<Map.Entry<BlockPos, BlockRequirement>> sortedBlocks = new ArrayList<>(pattern.getPattern().size());
 
         for (Map.Entry<BlockPos, BlockRequirement> entry : pattern.getPattern().entrySet()) {
-            BlockPos relPos = entry.getKey();
-            BlockPos worldPos = origin.add(relPos);
-            BlockRequirement requirement = entry.getValue();
-
-            // Skip if already correct
-            if (requirement.matches(world, worldPos, false)) continue;
-
-            IBlockState targetState = requirement.getSampleState();
-            String key = BlockSourceUtils.stateToKey(targetState);
-            required.merge(key, 1, Integer::sum);
+            sortedBlocks.add(new AbstractMap.SimpleImmutableEntry<>(origin.add(entry.getKey()), entry.getValue()));
         }
 
-        return required;
-    }
-
-    /**
-     * Prepare the sorted block list for placement (bottom to top, then X, then Z).
-     */
-    private static List<Map.Entry<BlockPos, BlockRequirement>> prepareSortedBlocks(StructurePattern pattern) {
-        List<Map.Entry<BlockPos, BlockRequirement>> sortedBlocks = new ArrayList<>(pattern.getPattern().entrySet());
-        sortedBlocks.sort(Comparator
-            .comparingInt((Map.Entry<BlockPos, BlockRequirement> e) -> e.getKey().getY())
-            .thenComparingInt(e -> e.getKey().getX())
-            .thenComparingInt(e -> e.getKey().getZ()));
+        sortedBlocks.sort(PLACEMENT_ORDER);
 
         return sortedBlocks;
     }
@@ -252,11 +432,10 @@ public class ServerAutobuildHandler {
 
     /**
      * Tick-driven placement manager. Registered on the event bus while active tasks exist.
-     * Each server tick, it processes all active ThrottledPlacementTasks.
+     * Each server tick, it lets the {@link PlacementScheduler} process all active ThrottledPlacementTasks.
      * This avoids the StackOverflowError that occurred when using addScheduledTask
      * (which executes immediately when called from the main thread).
      */
-    private static final List<ThrottledPlacementTask> activeTasks = new ArrayList<>();
     private static boolean tickHandlerRegistered = false;
 
     private static void registerTickHandler() {
@@ -270,205 +449,11 @@ public class ServerAutobuildHandler {
         @SubscribeEvent
         public static void onServerTick(TickEvent.ServerTickEvent event) {
             if (event.phase != TickEvent.Phase.END) return;
-            if (activeTasks.isEmpty()) return;
-
-            Iterator<ThrottledPlacementTask> it = activeTasks.iterator();
-
-            while (it.hasNext()) {
-                ThrottledPlacementTask task = it.next();
-
-                if (task.tick()) it.remove();
-            }
-        }
-    }
-
-    /**
-     * Handles placing blocks across multiple ticks according to {@link AutobuildConfig#blocksPerTick}.
-     * Fractional rates are supported: e.g. 0.5 means one block every 2 ticks.
-     * Blocks are extracted upfront during the request phase and placed incrementally.
-     * The chunk loading ticket is held until all blocks are placed, then released.
-     */
-    private static class ThrottledPlacementTask {
-
-        private final WorldServer world;
-        private final BlockPos origin;
-        private final List<Map.Entry<BlockPos, BlockRequirement>> sortedBlocks;
-        private final Map<String, Integer> remaining;
-        private final Map<String, Integer> missing;
-        private final EntityPlayerMP player;
-        private final ForgeChunkManager.Ticket ticket;
-        private final ResourceLocation structureId;
-
-        private int nextIndex = 0;
-        private int placed = 0;
-        private int skipped = 0;
-        private int failed = 0;
-        private final List<PlacementIssue> issues = new ArrayList<>();
-
-        // Fractional accumulator: when rate < 1, we accumulate until >= 1 to place a block
-        private double blockBudget = 0.0;
-
-        ThrottledPlacementTask(WorldServer world, BlockPos origin,
-                               List<Map.Entry<BlockPos, BlockRequirement>> sortedBlocks,
-                               Map<String, Integer> extractedCounts,
-                               Map<String, Integer> missing,
-                               EntityPlayerMP player,
-                               ForgeChunkManager.Ticket ticket,
-                               ResourceLocation structureId) {
-            this.world = world;
-            this.origin = origin;
-            this.sortedBlocks = sortedBlocks;
-            this.remaining = new HashMap<>(extractedCounts);
-            this.missing = missing;
-            this.player = player;
-            this.ticket = ticket;
-            this.structureId = structureId;
-        }
-
-        /**
-         * Register this task for tick-driven processing.
-         */
-        void start() {
-            registerTickHandler();
-            activeTasks.add(this);
-        }
-
-        /**
-         * Process one tick's worth of block placements.
-         *
-         * @return true if the task is finished and should be removed
-         */
-        private boolean tick() {
-            // Player disconnected or world unloaded - abort gracefully
-            if (player.hasDisconnected()) {
-                finish();
-
-                // TODO: handle the remaining blocks,
-                // they are currently lost from the player's inventory but not placed in the world.
-                // We should ideally return them to the player
-
-                return true;
-            }
-
-            double rate = AutobuildConfig.blocksPerTick;
-            blockBudget += rate;
-
-            // Place as many blocks as our budget allows this tick
-            int blocksThisTick = (int) blockBudget;
-            blockBudget -= blocksThisTick;
-
-            for (int i = 0; i < blocksThisTick && nextIndex < sortedBlocks.size(); i++) placeNext();
-
-            // Check if we're done
-            if (nextIndex >= sortedBlocks.size()) {
-                finish();
-
-                return true;
-            }
-
-            return false;
-        }
-
-        /**
-         * Place the next block in the sorted list.
-         */
-        private void placeNext() {
-            if (nextIndex >= sortedBlocks.size()) return;
-
-            Map.Entry<BlockPos, BlockRequirement> entry = sortedBlocks.get(nextIndex);
-            nextIndex++;
-
-            BlockPos relPos = entry.getKey();
-            BlockPos worldPos = origin.add(relPos);
-            BlockRequirement requirement = entry.getValue();
-
-            // Check if already correct
-            if (requirement.matches(world, worldPos, false)) {
-                skipped++;
-
-                return;
-            }
-
-            IBlockState targetState = requirement.getSampleState();
-            String key = BlockSourceUtils.stateToKey(targetState);
-
-            // Check if we have the block
-            int available = remaining.getOrDefault(key, 0);
-
-            if (available <= 0) {
-                failed++;
-
-                return;
-            }
-
-            // Decrement the count
-            remaining.put(key, available - 1);
-
-            // TODO: should we just not throttle skipped/failed blocks and move on to the next one immediately, instead of counting them against the block budget?
-            // Check for external interference before placing
-            IBlockState currentState = world.getBlockState(worldPos);
-
-            if (currentState.getBlock() != Blocks.AIR &&
-                !currentState.getBlock().isReplaceable(world, worldPos)) {
-
-                // Something appeared where we expected air
-                if (requirement.matches(world, worldPos, false)) {
-                    // Lucky - external interference placed correct block
-                    issues.add(new PlacementIssue(IssueType.CORRECT_EXTERNAL, worldPos,
-                        BlockSourceUtils.stateToKey(targetState),
-                        BlockSourceUtils.stateToKey(currentState)));
-                    skipped++;
-                } else {
-                    // External interference placed wrong block
-                    issues.add(new PlacementIssue(IssueType.WRONG_BLOCK, worldPos,
-                        BlockSourceUtils.stateToKey(targetState),
-                        BlockSourceUtils.stateToKey(currentState)));
-                    failed++;
-                }
-
-                return;
-            }
-
-            // Place the block
-            boolean success = world.setBlockState(worldPos, targetState, 3);
-
-            if (success) {
-                placed++;
-            } else {
-                issues.add(new PlacementIssue(IssueType.PLACEMENT_FAILED, worldPos,
-                    BlockSourceUtils.stateToKey(targetState), ""));
-                failed++;
-            }
-        }
-
-        /**
-         * Finalize placement: send result packets and release chunk ticket.
-         */
-        private void finish() {
-            // Report placement issues
-            if (!issues.isEmpty()) {
-                NetworkHandler.INSTANCE.sendTo(new PacketAutobuildPlacementIssue(issues), player);
-            }
-
-            // Send final result
-            ResultType resultType;
-
-            if (failed == 0 && missing.isEmpty()) {
-                resultType = ResultType.SUCCESS;
-            } else if (placed > 0) {
-                resultType = ResultType.PARTIAL_SUCCESS;
-            } else {
-                resultType = ResultType.FAILED;
-            }
-
-            PacketAutobuildResult packet = new PacketAutobuildResult(resultType, placed, skipped, failed);
-            NetworkHandler.INSTANCE.sendTo(packet, player);
 
-            MachineryAssembler.LOGGER.info("Autobuild for {}: {} placed, {} skipped, {} failed",
-                structureId, placed, skipped, failed);
+            MinecraftServer server = FMLCommonHandler.instance().getMinecraftServerInstance();
 
-            // Release chunk loading ticket
-            if (ticket != null) ForgeChunkManager.releaseTicket(ticket);
+            PlacementScheduler.tick(server);
+            AutobuildAdmission.tick(server);
         }
     }
 }
@@ -0,0 +1,420 @@
+// SPDX-License-Identifier: GPL-3.0-or-later
+// SPDX-FileCopyrightText: 2026 Machinery Assembler Contributors
+
+package com.machineryassembler.common.autobuild;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import javax.annotation.Nullable;
+
+import it.unimi.dsi.fastutil.HashCommon;
+import it.unimi.dsi.fastutil.ints.Int2IntMap;
+import it.unimi.dsi.fastutil.ints.Int2IntOpenHashMap;
+
+import net.minecraft.block.Block;
+import net.minecraft.block.state.IBlockState;
+import net.minecraft.entity.player.EntityPlayerMP;
+import net.minecraft.init.Blocks;
+import net.minecraft.nbt.NBTTagCompound;
+import net.minecraft.util.ResourceLocation;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.WorldServer;
+import net.minecraftforge.common.ForgeChunkManager;
+
+import com.machineryassembler.MachineryAssembler;
+import com.machineryassembler.common.config.AutobuildConfig;
+import com.machineryassembler.common.network.NetworkHandler;
+import com.machineryassembler.common.network.PacketAutobuildPlacementIssue;
+import com.machineryassembler.common.network.PacketAutobuildPlacementIssue.IssueType;
+import com.machineryassembler.common.network.PacketAutobuildPlacementIssue.PlacementIssue;
+import com.machineryassembler.common.network.PacketAutobuildResult;
+import com.machineryassembler.common.network.PacketAutobuildResult.ResultType;
+import com.machineryassembler.common.structure.BlockRequirement;
+import com.machineryassembler.common.structure.Structure;
+import com.machineryassembler.common.structure.StructurePattern;
+import com.machineryassembler.common.structure.StructureRegistry;
+
+
+/**
+ * Handles placing the blocks of one autobuild request across multiple ticks.
+ * How many blocks are placed each tick is decided by the {@link PlacementScheduler}.
+ * Blocks are extracted upfront during the request phase and placed incrementally.
+ * The chunk loading ticket is held until all blocks are placed, then released.
+ * Tasks holding a ticket are saved with the world ({@link AutobuildSavedData}) and resumed when it loads.
+ * Since their material is already extracted, tasks keep going while their player is offline.
+ * Builds of at least {@link AutobuildConfig#bulkPlacementThreshold} blocks write through a
+ * {@link BulkBlockWriter}, deferring updates to one pass per tick.
+ * Clients are never notified per block: placed positions go through a {@link ChunkSyncBatcher}
+ * and are sent once per chunk at the end of the tick.
+ */
+class ThrottledPlacementTask {
+
+    private final String id;
+    private final WorldServer world;
+    private final PlacementQueue queue;
+    private final Int2IntMap missing;
+    private final UUID playerId;
+    @Nullable
+    private final ForgeChunkManager.Ticket ticket;
+    private final ResourceLocation structureId;
+    private final BlockPos origin;
+    private final int rotation;
+    private final int patternSize;
+    private final long patternHash;
+    @Nullable
+    private final BulkBlockWriter bulkWriter;
+    private final ChunkSyncBatcher syncBatcher;
+
+    private int nextIndex = 0;
+    private int placed = 0;
+    private int skipped;
+    private int failed;
+    private final List<PlacementIssue> issues = new ArrayList<>();
+
+    // Fractional accumulator: when rate < 1, we accumulate until >= 1 to place a block
+    private double blockBudget = 0.0;
+
+    /**
+     * @param queue The positions to place, with their material already extracted
+     * @param skipped The number of positions that were already correct when the request was made
+     * @param failed The number of positions left out of the queue for lack of material
+     * @param rotation The clockwise quarter turns the structure is built with
+     * @param patternSize The number of positions in the pattern
+     * @param patternHash The {@link #fingerprint} of the rotated pattern, to check it is unchanged on resume
+     */
+    ThrottledPlacementTask(WorldServer world,
+                           PlacementQueue queue,
+                           int skipped,
+                           int failed,
+                           Int2IntMap missing,
+                           UUID playerId,
+                           @Nullable ForgeChunkManager.Ticket ticket,
+                           ResourceLocation structureId,
+                           BlockPos origin,
+                           int rotation,
+                           int patternSize,
+                           long patternHash) {
+        this(UUID.randomUUID().toString(), world, queue, skipped, failed, missing, playerId, ticket,
+            structureId, origin, rotation, patternSize, patternHash);
+    }
+
+    private ThrottledPlacementTask(String id,
+                                   WorldServer world,
+                                   PlacementQueue queue,
+                                   int skipped,
+                                   int failed,
+                                   Int2IntMap missing,
+                                   UUID playerId,
+                                   @Nullable ForgeChunkManager.Ticket ticket,
+                                   ResourceLocation structureId,
+                                   BlockPos origin,
+                                   int rotation,
+                                   int patternSize,
+                                   long patternHash) {
+        this.id = id;
+        this.world = world;
+        this.queue = queue;
+        this.skipped = skipped;
+        this.failed = failed;
+        this.missing = missing;
+        this.playerId = playerId;
+        this.ticket = ticket;
+        this.structureId = structureId;
+        this.origin = origin;
+        this.rotation = rotation;
+        this.patternSize = patternSize;
+        this.patternHash = patternHash;
+
+        int bulkThreshold = AutobuildConfig.bulkPlacementThreshold;
+        this.bulkWriter = bulkThreshold > 0 && queue.size() >= bulkThreshold ? new BulkBlockWriter(world) : null;
+        this.syncBatcher = new ChunkSyncBatcher(world);
+    }
+
+    String getId() {
+        return id;
+    }
+
+    UUID getPlayerId() {
+        return playerId;
+    }
+
+    int getRotation() {
+        return rotation;
+    }
+
+    /**
+     * @return The player who requested the build, or null if they are offline
+     */
+    @Nullable
+    private EntityPlayerMP getOnlinePlayer() {
+        return world.getMinecraftServer().getPlayerList().getPlayerByUUID(playerId);
+    }
+
+    /**
+     * Whether all blocks have been processed.
+     */
+    boolean isDone() {
+        return nextIndex >= queue.size();
+    }
+
+    /**
+     * Finish the task if it is done.
+     *
+     * @return true if the task is finished and should be removed
+     */
+    boolean finishIfDone() {
+        if (isDone()) {
+            finish();
+
+            return true;
+        }
+
+        return false;
+    }
+
+    /**
+     * Place one tick's worth of blocks at the fixed {@link AutobuildConfig#blocksPerTick} rate.
+     * Fractional rates are supported: e.g. 0.5 means one block every 2 ticks.
+     * Used when the scheduler's time budget is disabled.
+     */
+    void placeAtFixedRate() {
+        double rate = AutobuildConfig.blocksPerTick;
+        blockBudget += rate;
+
+        // Place as many blocks as our budget allows this tick
+        int blocksThisTick = (int) blockBudget;
+        blockBudget -= blocksThisTick;
+
+        for (int i = 0; i < blocksThisTick && !isDone(); i++) placeNext();
+    }
+
+    /**
+     * Run the deferred updates of the blocks placed this tick, if in bulk mode,
+     * then send this tick's changes to the clients.
+     */
+    void flush() {
+        // Relight first, resent sections carry the server's light data
+        if (bulkWriter != null) bulkWriter.flush();
+        syncBatcher.flush();
+
+        // Progress is only serialized when the world saves, so this stays cheap
+        if (ticket != null) AutobuildSavedData.get(world).markDirty();
+    }
+
+    /**
+     * Place the next block of the queue.
+     * The request phase already checked the position and reserved the material,
+     * so this only revalidates that nothing was put there in the meantime.
+     */
+    void placeNext() {
+        if (isDone()) return;
+
+        int index = nextIndex++;
+        BlockPos worldPos = queue.getPos(index);
+        IBlockState targetState = queue.getState(index);
+        int key = BlockSourceUtils.stateToId(targetState);
+
+        // Check for external interference before placing
+        IBlockState currentState = world.getBlockState(worldPos);
+
+        if (currentState.getBlock() != Blocks.AIR &&
+            !currentState.getBlock().isReplaceable(world, worldPos)) {
+
+            // Something appeared where we expected air
+            if (queue.getRequirement(index).matchesState(world, worldPos, currentState)) {
+                // Lucky - external interference placed correct block
+                issues.add(new PlacementIssue(IssueType.CORRECT_EXTERNAL, worldPos,
+                    key, BlockSourceUtils.stateToId(currentState)));
+                skipped++;
+            } else {
+                // External interference placed wrong block
+                issues.add(new PlacementIssue(IssueType.WRONG_BLOCK, worldPos,
+                    key, BlockSourceUtils.stateToId(currentState)));
+                failed++;
+            }
+
+            return;
+        }
+
+        // Already in place, such as a replaceable target block. Writing it again would change nothing and report failure
+        if (currentState == targetState) {
+            skipped++;
+            return;
+        }
+
+        // Place the block, clients are notified by the sync batcher
+        boolean success = bulkWriter != null
+            ? bulkWriter.write(worldPos, targetState)
+            : world.setBlockState(worldPos, targetState, 1);
+
+        if (success) {
+            // Bulk writes notify the other listeners when flushed
+            if (bulkWriter == null) ChunkSyncBatcher.notifyListeners(world, worldPos, currentState, targetState);
+            syncBatcher.add(worldPos);
+            placed++;
+        } else {
+            issues.add(new PlacementIssue(IssueType.PLACEMENT_FAILED, worldPos,
+                key, PlacementIssue.UNKNOWN_STATE));
+            failed++;
+        }
+    }
+
+    /**
+     * Finalize placement: send result packets and release chunk ticket.
+     */
+    private void finish() {
+        flush();
+
+        EntityPlayerMP player = getOnlinePlayer();
+
+        // Report placement issues
+        if (player != null && !issues.isEmpty()) {
+            for (PacketAutobuildPlacementIssue fragment : PacketAutobuildPlacementIssue.split(origin, issues)) {
+                NetworkHandler.INSTANCE.sendTo(fragment, player);
+            }
+        }
+
+        // Send final result
+        ResultType resultType;
+
+        if (failed == 0 && missing.isEmpty()) {
+            resultType = ResultType.SUCCESS;
+        } else if (placed > 0) {
+            resultType = ResultType.PARTIAL_SUCCESS;
+        } else {
+            resultType = ResultType.FAILED;
+        }
+
+        if (player != null) {
+            PacketAutobuildResult packet = new PacketAutobuildResult(resultType, placed, skipped, failed);
+            NetworkHandler.INSTANCE.sendTo(packet, player);
+        }
+
+        MachineryAssembler.LOGGER.info("Autobuild for {}: {} placed, {} skipped, {} failed",
+            structureId, placed, skipped, failed);
+
+        AutobuildAdmission.release(AutobuildAdmission.keyOf(world, structureId, origin));
+
+        // Release chunk loading ticket
+        if (ticket != null) {
+            AutobuildSavedData.get(world).untrack(this);
+            ForgeChunkManager.releaseTicket(ticket);
+        }
+    }
+
+    // ==================== Persistence ====================
+
+    /**
+     * Fingerprint of a rotated pattern: its positions and the states they take.
+     * The saved queue indexes the pattern in placement order, which only depends on the positions,
+     * so an edited pattern of the same size must not be resumed. Entries are summed,
+     * so the pattern's iteration order doesn't matter. State ids are stable within a world.
+     */
+    static long fingerprint(StructurePattern pattern) {
+        long fingerprint = 0;
+
+        for (Map.Entry<BlockPos, BlockRequirement> entry : pattern.getPattern().entrySet()) {
+            long hash = entry.getKey().toLong();
+            for (IBlockState sample : entry.getValue().getSamples()) hash = hash * 31 + Block.getStateId(sample);
+
+            fingerprint += HashCommon.mix(hash);
+        }
+
+        return fingerprint;
+    }
+
+    /**
+     * Serialize the task's progress. The remaining queue is stored as a bitset over the sorted pattern,
+     * plus the reserved state of each remaining position.
+     */
+    NBTTagCompound writeToNBT() {
+        NBTTagCompound nbt = new NBTTagCompound();
+        nbt.setString("id", id);
+        nbt.setString("structure", structureId.toString());
+        nbt.setLong("origin", origin.toLong());
+        nbt.setByte("rotation", (byte) rotation);
+        nbt.setUniqueId("player", playerId);
+        nbt.setInteger("patternSize", patternSize);
+        nbt.setLong("patternHash", patternHash);
+        nbt.setInteger("placed", placed);
+        nbt.setInteger("skipped", skipped);
+        nbt.setInteger("failed", failed);
+
+        BitSet remaining = new BitSet(patternSize);
+        int[] states = new int[queue.size() - nextIndex];
+
+        for (int i = nextIndex; i < queue.size(); i++) {
+            remaining.set(queue.getPatternIndex(i));
+            states[i - nextIndex] = BlockSourceUtils.stateToId(queue.getState(i));
+        }
+
+        nbt.setByteArray("remaining", remaining.toByteArray());
+        nbt.setIntArray("states", states);
+
+        int[] missingEntries = new int[missing.size() * 2];
+        int i = 0;
+
+        for (Int2IntMap.Entry entry : missing.int2IntEntrySet()) {
+            missingEntries[i++] = entry.getIntKey();
+            missingEntries[i++] = entry.getIntValue();
+        }
+
+        nbt.setIntArray("missing", missingEntries);
+
+        return nbt;
+    }
+
+    /**
+     * Rebuild a saved task. The queue is replayed against the current structure definition,
+     * so the task is dropped if the structure was removed or its pattern changed (see {@link #fingerprint}).
+     *
+     * @return The task, or null if it can't be resumed
+     */
+    @Nullable
+    static ThrottledPlacementTask readFromNBT(WorldServer world, NBTTagCompound nbt, ForgeChunkManager.Ticket ticket) {
+        ResourceLocation structureId = new ResourceLocation(nbt.getString("structure"));
+        BlockPos origin = BlockPos.fromLong(nbt.getLong("origin"));
+        int rotation = nbt.getByte("rotation") & 3;
+        int patternSize = nbt.getInteger("patternSize");
+        long patternHash = nbt.getLong("patternHash");
+        int[] states = nbt.getIntArray("states");
+
+        Structure structure = StructureRegistry.getRegistry().getStructure(structureId);
+        StructurePattern pattern = structure != null ? structure.getRotatedPattern(rotation) : null;
+        if (pattern == null || pattern.getPattern().size() != patternSize || fingerprint(pattern) != patternHash) {
+            MachineryAssembler.LOGGER.warn("Dropping saved autobuild for {} at {}: structure missing or changed, {} reserved blocks lost",
+                structureId, origin, states.length);
+
+            return null;
+        }
+
+        // Placement order is deterministic, so the bitset indexes the same sorted list it was built from
+        List<Map.Entry<BlockPos, BlockRequirement>> sortedBlocks =
+            ServerAutobuildHandler.prepareSortedBlocks(pattern, origin);
+        BitSet remaining = BitSet.valueOf(nbt.getByteArray("remaining"));
+        PlacementQueue queue = new PlacementQueue(states.length);
+        int stateIndex = 0;
+
+        for (int i = remaining.nextSetBit(0); i >= 0 && stateIndex < states.length; i = remaining.nextSetBit(i + 1)) {
+            Map.Entry<BlockPos, BlockRequirement> entry = sortedBlocks.get(i);
+            IBlockState state = Block.getStateById(states[stateIndex++]);
+
+            queue.add(entry.getKey(), i, state, entry.getValue());
+        }
+
+        Int2IntMap missing = new Int2IntOpenHashMap();
+        int[] missingEntries = nbt.getIntArray("missing");
+        for (int i = 0; i + 1 < missingEntries.length; i += 2) missing.put(missingEntries[i], missingEntries[i + 1]);
+
+        ThrottledPlacementTask task = new ThrottledPlacementTask(nbt.getString("id"), world, queue,
+            nbt.getInteger("skipped"), nbt.getInteger("failed"), missing, nbt.getUniqueId("player"),
+            ticket, structureId, origin, rotation, patternSize, patternHash);
+        task.placed = nbt.getInteger("placed");
+
+        return task;
+    }
+}
@@ -7,6 +7,7 @@ import net.minecraft.command.ICommandSender;
 import net.minecraft.server.MinecraftServer;
 
 import com.machineryassembler.common.structure.StructureRegistry;
+import com.machineryassembler.common.structure.StructureSync;
 
 
 public class CommandReloadStructures extends CommandBase {
@@ -31,5 +32,6 @@ public class CommandReloadStructures extends CommandBase {
     @Override
     public void execute(@Nonnull MinecraftServer server, @Nonnull ICommandSender sender, @Nonnull String[] args) {
         StructureRegistry.reloadStructures(sender);
+        StructureSync.sendManifestToAll(server);
     }
 }
@@ -16,12 +16,13 @@ import com.machineryassembler.MachineryAssembler;
 
 
 /**
- * Configuration for autobuild behavior.
+ * Configuration for autobuild behavior and the in-world preview.
  * Uses traditional Configuration API for proper GUI support with double values.
  */
 public class AutobuildConfig {
 
     public static final String CATEGORY = "autobuild";
+    public static final String CATEGORY_PREVIEW = "preview";
 
     // Config keys for localization
     public static final String KEY_CONSUME_CREATIVE = "config.machineryassembler.consumeBlocksInCreative";
@@ -29,14 +30,46 @@ public class AutobuildConfig {
     public static final String KEY_BLOCKS_PER_TICK = "config.machineryassembler.blocksPerTick";
     public static final String KEY_MAX_DISTANCE = "config.machineryassembler.maxBuildDistance";
     public static final String KEY_DETAILED_REPORT = "config.machineryassembler.detailedMissingReport";
+    public static final String KEY_TICK_BUDGET = "config.machineryassembler.tickBudgetMicros";
+    public static final String KEY_BACKOFF_MSPT = "config.machineryassembler.backoffMspt";
+    public static final String KEY_BULK_THRESHOLD = "config.machineryassembler.bulkPlacementThreshold";
+    public static final String KEY_CONTAINER_RADIUS = "config.machineryassembler.nearbyContainerRadius";
+    public static final String KEY_CONTAINERS_AROUND_BUILD = "config.machineryassembler.searchContainersAroundBuild";
+    public static final String KEY_ASYNC_PLANNING = "config.machineryassembler.asyncPlanningThreshold";
+    public static final String KEY_MAX_BUILDS_PER_PLAYER = "config.machineryassembler.maxBuildsPerPlayer";
+    public static final String KEY_MAX_CONCURRENT_BUILDS = "config.machineryassembler.maxConcurrentBuilds";
+    public static final String KEY_MAX_BLOCKS_PER_PLAYER = "config.machineryassembler.maxQueuedBlocksPerPlayer";
+    public static final String KEY_MAX_BLOCKS = "config.machineryassembler.maxQueuedBlocks";
+    public static final String KEY_PREVIEW_DISTANCE = "config.machineryassembler.previewRenderDistance";
+    public static final String KEY_PREVIEW_LOD_DISTANCE = "config.machineryassembler.previewLodDistance";
+    public static final String KEY_PREVIEW_LOD_THRESHOLD = "config.machineryassembler.previewLodThreshold";
+    public static final String KEY_PREVIEW_HIDE_ENCLOSED = "config.machineryassembler.previewHideEnclosed";
+    public static final String KEY_THUMBNAIL_MEMORY = "config.machineryassembler.thumbnailMemory";
+    public static final String KEY_THUMBNAIL_DISK_CACHE = "config.machineryassembler.thumbnailDiskCache";
 
     private static Configuration config;
 
     public static boolean consumeBlocksInCreative = false;
     public static boolean allowPartialBuilds = true;
     public static double blocksPerTick = 0.5;
+    public static int tickBudgetMicros = 0;
+    public static double backoffMspt = 40.0;
+    public static int bulkPlacementThreshold = 0;
+    public static int asyncPlanningThreshold = 32768;
+    public static int maxBuildsPerPlayer = 2;
+    public static int maxConcurrentBuilds = 16;
+    public static int maxQueuedBlocksPerPlayer = 1000000;
+    public static int maxQueuedBlocks = 4000000;
     public static int maxBuildDistance = 0;
     public static boolean detailedMissingReport = true;
+    public static int nearbyContainerRadius = 0;
+    public static boolean searchContainersAroundBuild = false;
+    public static int previewRenderDistance = 128;
+    public static int previewLodDistance = 48;
+    public static int previewLodThreshold = 250000;
+    public static boolean previewHideEnclosed = true;
+    public static int thumbnailMemory = 32;
+    public static boolean thumbnailDiskCache = true;
 
     public static void init(File configFile) {
         if (config == null) {
@@ -64,11 +97,67 @@ public class AutobuildConfig {
 
         prop = config.get(CATEGORY, "blocksPerTick", 0.5);
         prop.setLanguageKey(KEY_BLOCKS_PER_TICK);
-        prop.setComment("Number of blocks to place per tick during autobuild. Fractional values are allowed (e.g. 0.5 = one block every 2 ticks). Higher values build faster but may cause lag.");
+        prop.setComment("Number of blocks to place per tick for each autobuild, when tickBudgetMicros is 0. Fractional values are allowed (e.g. 0.5 = one block every 2 ticks). Higher values build faster but may cause lag.");
         prop.setMinValue(0.05);
         prop.setMaxValue(64.0);
         blocksPerTick = prop.getDouble();
 
+        prop = config.get(CATEGORY, "tickBudgetMicros", 0);
+        prop.setLanguageKey(KEY_TICK_BUDGET);
+        prop.setComment("Time in microseconds that all running autobuilds may share each tick to place blocks, split fairly between players. The budget shrinks automatically when the server is lagging. Set to 0 (default) to use blocksPerTick for each build instead.");
+        prop.setMinValue(0);
+        prop.setMaxValue(50000);
+        tickBudgetMicros = prop.getInt();
+
+        prop = config.get(CATEGORY, "backoffMspt", 40.0);
+        prop.setLanguageKey(KEY_BACKOFF_MSPT);
+        prop.setComment("Average milliseconds per tick above which autobuild starts reducing its time budget, down to a single block per tick at 50 ms.");
+        prop.setMinValue(0.0);
+        prop.setMaxValue(50.0);
+        backoffMspt = prop.getDouble();
+
+        prop = config.get(CATEGORY, "bulkPlacementThreshold", 0);
+        prop.setLanguageKey(KEY_BULK_THRESHOLD);
+        prop.setComment("Builds placing at least this many blocks write them directly to the chunks, then run neighbor updates, relighting and client updates once per tick for the whole batch. Much faster for large builds, but blocks only react to their neighbors at the end of each tick. Set to 0 to disable.");
+        prop.setMinValue(0);
+        prop.setMaxValue(Integer.MAX_VALUE);
+        bulkPlacementThreshold = prop.getInt();
+
+        prop = config.get(CATEGORY, "asyncPlanningThreshold", 32768);
+        prop.setLanguageKey(KEY_ASYNC_PLANNING);
+        prop.setComment("Structures with at least this many positions are compared against the world on a separate thread, from a copy of their chunks, instead of during the server tick. Set to 0 to always plan on the server thread.");
+        prop.setMinValue(0);
+        prop.setMaxValue(Integer.MAX_VALUE);
+        asyncPlanningThreshold = prop.getInt();
+
+        prop = config.get(CATEGORY, "maxBuildsPerPlayer", 2);
+        prop.setLanguageKey(KEY_MAX_BUILDS_PER_PLAYER);
+        prop.setComment("Maximum number of autobuilds a single player can have running at once. Further requests wait in a queue. Set to 0 for unlimited.");
+        prop.setMinValue(0);
+        prop.setMaxValue(1024);
+        maxBuildsPerPlayer = prop.getInt();
+
+        prop = config.get(CATEGORY, "maxConcurrentBuilds", 16);
+        prop.setLanguageKey(KEY_MAX_CONCURRENT_BUILDS);
+        prop.setComment("Maximum number of autobuilds running at once on the whole server. Further requests wait in a queue. Set to 0 for unlimited.");
+        prop.setMinValue(0);
+        prop.setMaxValue(1024);
+        maxConcurrentBuilds = prop.getInt();
+
+        prop = config.get(CATEGORY, "maxQueuedBlocksPerPlayer", 1000000);
+        prop.setLanguageKey(KEY_MAX_BLOCKS_PER_PLAYER);
+        prop.setComment("Maximum number of blocks the running autobuilds of a single player may have left to place. Larger structures are refused. Set to 0 for unlimited.");
+        prop.setMinValue(0);
+        prop.setMaxValue(Integer.MAX_VALUE);
+        maxQueuedBlocksPerPlayer = prop.getInt();
+
+        prop = config.get(CATEGORY, "maxQueuedBlocks", 4000000);
+        prop.setLanguageKey(KEY_MAX_BLOCKS);
+        prop.setComment("Maximum number of blocks all running autobuilds may have left to place. Larger structures are refused. Set to 0 for unlimited.");
+        prop.setMinValue(0);
+        prop.setMaxValue(Integer.MAX_VALUE);
+        maxQueuedBlocks = prop.getInt();
+
         prop = config.get(CATEGORY, "maxBuildDistance", 0);
         prop.setLanguageKey(KEY_MAX_DISTANCE);
         prop.setComment("Maximum distance from player for autobuild. Set to 0 for unlimited.");
@@ -81,6 +170,56 @@ public class AutobuildConfig {
         prop.setComment("Whether to report each missing block type in chat. If false, only shows total count.");
         detailedMissingReport = prop.getBoolean();
 
+        prop = config.get(CATEGORY, "nearbyContainerRadius", 0);
+        prop.setLanguageKey(KEY_CONTAINER_RADIUS);
+        prop.setComment("Radius in blocks in which chests and other item containers are searched for autobuild materials, after the player's inventory. Only loaded chunks are searched, and only containers the player is allowed to open. Set to 0 to disable (default).");
+        prop.setMinValue(0);
+        prop.setMaxValue(32);
+        nearbyContainerRadius = prop.getInt();
+
+        prop = config.get(CATEGORY, "searchContainersAroundBuild", false);
+        prop.setLanguageKey(KEY_CONTAINERS_AROUND_BUILD);
+        prop.setComment("Whether to search containers around the bounding box of the structure being built instead of around the player.");
+        searchContainersAroundBuild = prop.getBoolean();
+
+        prop = config.get(CATEGORY_PREVIEW, "previewRenderDistance", 128);
+        prop.setLanguageKey(KEY_PREVIEW_DISTANCE);
+        prop.setComment("Maximum distance in blocks at which parts of the in-world structure preview are rendered. Set to 0 for unlimited.");
+        prop.setMinValue(0);
+        prop.setMaxValue(1024);
+        previewRenderDistance = prop.getInt();
+
+        prop = config.get(CATEGORY_PREVIEW, "previewLodDistance", 48);
+        prop.setLanguageKey(KEY_PREVIEW_LOD_DISTANCE);
+        prop.setComment("Distance in blocks beyond which parts of the in-world structure preview are drawn as plain colored cubes instead of full block models. Set to 0 to always draw full models.");
+        prop.setMinValue(0);
+        prop.setMaxValue(1024);
+        previewLodDistance = prop.getInt();
+
+        prop = config.get(CATEGORY_PREVIEW, "previewLodThreshold", 250000);
+        prop.setLanguageKey(KEY_PREVIEW_LOD_THRESHOLD);
+        prop.setComment("Structures with at least this many blocks are previewed entirely as plain colored cubes, whatever the distance. Set to 0 to disable.");
+        prop.setMinValue(0);
+        prop.setMaxValue(Integer.MAX_VALUE);
+        previewLodThreshold = prop.getInt();
+
+        prop = config.get(CATEGORY_PREVIEW, "previewHideEnclosed", true);
+        prop.setLanguageKey(KEY_PREVIEW_HIDE_ENCLOSED);
+        prop.setComment("Whether the in-world structure preview leaves out blocks surrounded on all six sides by opaque preview blocks, only showing the outer shell of solid structures.");
+        previewHideEnclosed = prop.getBoolean();
+
+        prop = config.get(CATEGORY_PREVIEW, "thumbnailMemory", 32);
+        prop.setLanguageKey(KEY_THUMBNAIL_MEMORY);
+        prop.setComment("Video memory in megabytes kept for structure thumbnails in structure lists and JEI. The least recently shown are dropped first.");
+        prop.setMinValue(1);
+        prop.setMaxValue(1024);
+        thumbnailMemory = prop.getInt();
+
+        prop = config.get(CATEGORY_PREVIEW, "thumbnailDiskCache", true);
+        prop.setLanguageKey(KEY_THUMBNAIL_DISK_CACHE);
+        prop.setComment("Whether to save structure thumbnails in config/machineryassembler/cache/thumbnails, so they don't need to be rendered again on later launches.");
+        thumbnailDiskCache = prop.getBoolean();
+
         if (config.hasChanged()) config.save();
     }
 
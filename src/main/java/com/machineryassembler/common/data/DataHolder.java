@@ -8,6 +8,8 @@ import com.machineryassembler.MachineryAssembler;
 public class DataHolder {
 
     private File structuresDirectory;
+    private File structureCacheDirectory;
+    private File thumbnailCacheDirectory;
 
     public void setup(File configDir) {
         File modConfigDir = new File(configDir, MachineryAssembler.MODID);
@@ -18,9 +20,27 @@ public class DataHolder {
             structuresDirectory.mkdirs();
             MachineryAssembler.LOGGER.info("[Machinery Assembler] Created structures directory at {}", structuresDirectory.getAbsolutePath());
         }
+
+        // Created on first use, only clients joining servers need it
+        structureCacheDirectory = new File(modConfigDir, "cache/structures");
+        thumbnailCacheDirectory = new File(modConfigDir, "cache/thumbnails");
     }
 
     public File getStructuresDirectory() {
         return structuresDirectory;
     }
+
+    /**
+     * Directory of the structure definitions received from servers, named by hash.
+     */
+    public File getStructureCacheDirectory() {
+        return structureCacheDirectory;
+    }
+
+    /**
+     * Directory of the rendered structure thumbnails, named by definition hash.
+     */
+    public File getThumbnailCacheDirectory() {
+        return thumbnailCacheDirectory;
+    }
 }
@@ -57,6 +57,35 @@ public class NetworkHandler {
             Side.CLIENT
         );
 
+        INSTANCE.registerMessage(
+            PacketAutobuildQueueStatus.Handler.class,
+            PacketAutobuildQueueStatus.class,
+            packetId++,
+            Side.CLIENT
+        );
+
+        // Structure sync
+        INSTANCE.registerMessage(
+            PacketStructureManifest.Handler.class,
+            PacketStructureManifest.class,
+            packetId++,
+            Side.CLIENT
+        );
+
+        INSTANCE.registerMessage(
+            PacketStructureRequest.Handler.class,
+            PacketStructureRequest.class,
+            packetId++,
+            Side.SERVER
+        );
+
+        INSTANCE.registerMessage(
+            PacketStructureDefinitions.Handler.class,
+            PacketStructureDefinitions.class,
+            packetId++,
+            Side.CLIENT
+        );
+
         MachineryAssembler.LOGGER.info("[Machinery Assembler] Registered {} network packets", packetId);
     }
 }
@@ -3,13 +3,12 @@
 
 package com.machineryassembler.common.network;
 
-import java.util.HashMap;
-import java.util.Map;
-
 import io.netty.buffer.ByteBuf;
 
+import it.unimi.dsi.fastutil.ints.Int2IntMap;
+import it.unimi.dsi.fastutil.ints.Int2IntOpenHashMap;
+
 import net.minecraft.client.Minecraft;
-import net.minecraftforge.fml.common.network.ByteBufUtils;
 import net.minecraftforge.fml.common.network.simpleimpl.IMessage;
 import net.minecraftforge.fml.common.network.simpleimpl.IMessageHandler;
 import net.minecraftforge.fml.common.network.simpleimpl.MessageContext;
@@ -21,18 +20,20 @@ import com.machineryassembler.client.autobuild.AutobuildHandler;
 
 /**
  * Server -> Client packet indicating missing blocks for autobuild.
- * Contains a map of block registry name + meta -> missing count.
+ * Contains a map of block state key (see {@link com.machineryassembler.common.autobuild.BlockSourceUtils#stateToId})
+ * -> missing count. Keys are resolved to display names on the client.
+ * Keys are distinct, so they are sent as varints directly rather than through a palette.
  */
 public class PacketAutobuildMissingBlocks implements IMessage {
 
-    private Map<String, Integer> missingBlocks;
+    private Int2IntMap missingBlocks;
     private boolean aborted;
 
     public PacketAutobuildMissingBlocks() {
-        this.missingBlocks = new HashMap<>();
+        this.missingBlocks = new Int2IntOpenHashMap();
     }
 
-    public PacketAutobuildMissingBlocks(Map<String, Integer> missingBlocks, boolean aborted) {
+    public PacketAutobuildMissingBlocks(Int2IntMap missingBlocks, boolean aborted) {
         this.missingBlocks = missingBlocks;
         this.aborted = aborted;
     }
@@ -40,12 +41,12 @@ public class PacketAutobuildMissingBlocks implements IMessage {
     @Override
     public void fromBytes(ByteBuf buf) {
         aborted = buf.readBoolean();
-        int count = buf.readInt();
-        missingBlocks = new HashMap<>(count);
+        int count = ReportEncoding.readVarInt(buf);
+        missingBlocks = new Int2IntOpenHashMap(count);
 
         for (int i = 0; i < count; i++) {
-            String key = ByteBufUtils.readUTF8String(buf);
-            int amount = buf.readInt();
+            int key = ReportEncoding.readVarInt(buf);
+            int amount = ReportEncoding.readVarInt(buf);
             missingBlocks.put(key, amount);
         }
     }
@@ -53,15 +54,15 @@ public class PacketAutobuildMissingBlocks implements IMessage {
     @Override
     public void toBytes(ByteBuf buf) {
         buf.writeBoolean(aborted);
-        buf.writeInt(missingBlocks.size());
+        ReportEncoding.writeVarInt(buf, missingBlocks.size());
 
-        for (Map.Entry<String, Integer> entry : missingBlocks.entrySet()) {
-            ByteBufUtils.writeUTF8String(buf, entry.getKey());
-            buf.writeInt(entry.getValue());
+        for (Int2IntMap.Entry entry : missingBlocks.int2IntEntrySet()) {
+            ReportEncoding.writeVarInt(buf, entry.getIntKey());
+            ReportEncoding.writeVarInt(buf, entry.getIntValue());
         }
     }
 
-    public Map<String, Integer> getMissingBlocks() {
+    public Int2IntMap getMissingBlocks() {
         return missingBlocks;
     }
 
@@ -5,6 +5,7 @@ package com.machineryassembler.common.network;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Function;
 
 import io.netty.buffer.ByteBuf;
 
@@ -22,32 +23,70 @@ import com.machineryassembler.client.autobuild.AutobuildHandler;
 /**
  * Server -> Client packet indicating obstructions that prevent autobuild.
  * These blocks should be highlighted in red and the selection cleared.
+ * Positions are encoded relative to the build origin, see {@link ReportEncoding#writePositionSet}.
+ * Large reports are sent as several fragments, see {@link #split}. Each fragment is self-contained,
+ * and the first one also carries the size of the whole report.
  */
 public class PacketAutobuildObstruction implements IMessage {
 
+    private BlockPos origin;
     private List<BlockPos> obstructedPositions;
+    private int fragment;
+    private int totalCount;
 
     public PacketAutobuildObstruction() {
         this.obstructedPositions = new ArrayList<>();
     }
 
-    public PacketAutobuildObstruction(List<BlockPos> obstructedPositions) {
+    private PacketAutobuildObstruction(BlockPos origin, List<BlockPos> obstructedPositions, int fragment, int totalCount) {
+        this.origin = origin;
         this.obstructedPositions = obstructedPositions;
+        this.fragment = fragment;
+        this.totalCount = totalCount;
+    }
+
+    /**
+     * Build the fragments reporting the given obstructions, in sending order.
+     */
+    public static List<PacketAutobuildObstruction> split(BlockPos origin, List<BlockPos> obstructedPositions) {
+        List<List<BlockPos>> runs = ReportEncoding.split(obstructedPositions, Function.identity(), origin, 0);
+        List<PacketAutobuildObstruction> packets = new ArrayList<>(runs.size());
+
+        for (int i = 0; i < runs.size(); i++) {
+            packets.add(new PacketAutobuildObstruction(origin, runs.get(i), i, obstructedPositions.size()));
+        }
+
+        return packets;
     }
 
     @Override
     public void fromBytes(ByteBuf buf) {
-        int count = buf.readInt();
-        obstructedPositions = new ArrayList<>(count);
-
-        for (int i = 0; i < count; i++) obstructedPositions.add(BlockPos.fromLong(buf.readLong()));
+        fragment = ReportEncoding.readVarInt(buf);
+        totalCount = ReportEncoding.readVarInt(buf);
+        origin = BlockPos.fromLong(buf.readLong());
+        obstructedPositions = ReportEncoding.readPositionSet(buf, origin);
     }
 
     @Override
     public void toBytes(ByteBuf buf) {
-        buf.writeInt(obstructedPositions.size());
+        ReportEncoding.writeVarInt(buf, fragment);
+        ReportEncoding.writeVarInt(buf, totalCount);
+        buf.writeLong(origin.toLong());
+        ReportEncoding.writePositionSet(buf, origin, obstructedPositions);
+    }
+
+    /**
+     * Whether this is the first fragment of its report, clients summarize the report when it arrives.
+     */
+    public boolean isFirstFragment() {
+        return fragment == 0;
+    }
 
-        for (BlockPos pos : obstructedPositions) buf.writeLong(pos.toLong());
+    /**
+     * @return The number of obstructions in the whole report, across all fragments
+     */
+    public int getTotalCount() {
+        return totalCount;
     }
 
     public List<BlockPos> getObstructedPositions() {
@@ -10,7 +10,6 @@ import io.netty.buffer.ByteBuf;
 
 import net.minecraft.client.Minecraft;
 import net.minecraft.util.math.BlockPos;
-import net.minecraftforge.fml.common.network.ByteBufUtils;
 import net.minecraftforge.fml.common.network.simpleimpl.IMessage;
 import net.minecraftforge.fml.common.network.simpleimpl.IMessageHandler;
 import net.minecraftforge.fml.common.network.simpleimpl.MessageContext;
@@ -23,6 +22,8 @@ import com.machineryassembler.client.autobuild.AutobuildHandler;
 /**
  * Server -> Client packet indicating placement issues during autobuild.
  * Used to report blocks that couldn't be placed due to external interference.
+ * Positions are encoded relative to the build origin and block identities through a palette,
+ * see {@link ReportEncoding}. Large reports are sent as several self-contained fragments, see {@link #split}.
  */
 public class PacketAutobuildPlacementIssue implements IMessage {
 
@@ -35,39 +36,69 @@ public class PacketAutobuildPlacementIssue implements IMessage {
         PLACEMENT_FAILED
     }
 
+    private BlockPos origin;
     private List<PlacementIssue> issues;
 
     public PacketAutobuildPlacementIssue() {
         this.issues = new ArrayList<>();
     }
 
-    public PacketAutobuildPlacementIssue(List<PlacementIssue> issues) {
+    private PacketAutobuildPlacementIssue(BlockPos origin, List<PlacementIssue> issues) {
+        this.origin = origin;
         this.issues = issues;
     }
 
+    /**
+     * Build the fragments reporting the given issues, in sending order.
+     */
+    public static List<PacketAutobuildPlacementIssue> split(BlockPos origin, List<PlacementIssue> issues) {
+        // Type, two palette indices and at worst two new palette entries
+        int extraBytes = 1 + 4 * 5;
+        List<PacketAutobuildPlacementIssue> packets = new ArrayList<>();
+
+        for (List<PlacementIssue> run : ReportEncoding.split(issues, PlacementIssue::getPos, origin, extraBytes)) {
+            packets.add(new PacketAutobuildPlacementIssue(origin, run));
+        }
+
+        return packets;
+    }
+
     @Override
     public void fromBytes(ByteBuf buf) {
-        int count = buf.readInt();
-        issues = new ArrayList<>(count);
+        origin = BlockPos.fromLong(buf.readLong());
+        int[] palette = ReportEncoding.Palette.read(buf);
+        List<BlockPos> positions = ReportEncoding.readPositionList(buf, origin);
+        issues = new ArrayList<>(positions.size());
 
-        for (int i = 0; i < count; i++) {
+        for (BlockPos pos : positions) {
             IssueType type = IssueType.values()[buf.readByte()];
-            BlockPos pos = BlockPos.fromLong(buf.readLong());
-            String expectedBlock = ByteBufUtils.readUTF8String(buf);
-            String actualBlock = ByteBufUtils.readUTF8String(buf);
+            int expectedBlock = palette[ReportEncoding.readVarInt(buf)];
+            int actualBlock = palette[ReportEncoding.readVarInt(buf)];
             issues.add(new PlacementIssue(type, pos, expectedBlock, actualBlock));
         }
     }
 
     @Override
     public void toBytes(ByteBuf buf) {
-        buf.writeInt(issues.size());
+        ReportEncoding.Palette palette = new ReportEncoding.Palette();
+        List<BlockPos> positions = new ArrayList<>(issues.size());
+        int[] entries = new int[issues.size() * 2];
+
+        for (int i = 0; i < issues.size(); i++) {
+            PlacementIssue issue = issues.get(i);
+            positions.add(issue.pos);
+            entries[i * 2] = palette.indexOf(issue.expectedBlock);
+            entries[i * 2 + 1] = palette.indexOf(issue.actualBlock);
+        }
 
-        for (PlacementIssue issue : issues) {
-            buf.writeByte(issue.type.ordinal());
-            buf.writeLong(issue.pos.toLong());
-            ByteBufUtils.writeUTF8String(buf, issue.expectedBlock);
-            ByteBufUtils.writeUTF8String(buf, issue.actualBlock);
+        buf.writeLong(origin.toLong());
+        palette.write(buf);
+        ReportEncoding.writePositionList(buf, origin, positions);
+
+        for (int i = 0; i < issues.size(); i++) {
+            buf.writeByte(issues.get(i).type.ordinal());
+            ReportEncoding.writeVarInt(buf, entries[i * 2]);
+            ReportEncoding.writeVarInt(buf, entries[i * 2 + 1]);
         }
     }
 
@@ -75,13 +106,20 @@ public class PacketAutobuildPlacementIssue implements IMessage {
         return issues;
     }
 
+    /**
+     * A single placement issue. Block identities are state keys
+     * (see {@link com.machineryassembler.common.autobuild.BlockSourceUtils#stateToId}), {@link #UNKNOWN_STATE} when unknown.
+     */
     public static class PlacementIssue {
+        /** Block identity of an issue without a known block, as 0 is air. */
+        public static final int UNKNOWN_STATE = -1;
+
         private final IssueType type;
         private final BlockPos pos;
-        private final String expectedBlock;
-        private final String actualBlock;
+        private final int expectedBlock;
+        private final int actualBlock;
 
-        public PlacementIssue(IssueType type, BlockPos pos, String expectedBlock, String actualBlock) {
+        public PlacementIssue(IssueType type, BlockPos pos, int expectedBlock, int actualBlock) {
             this.type = type;
             this.pos = pos;
             this.expectedBlock = expectedBlock;
@@ -96,11 +134,11 @@ public class PacketAutobuildPlacementIssue implements IMessage {
             return pos;
         }
 
-        public String getExpectedBlock() {
+        public int getExpectedBlock() {
             return expectedBlock;
         }
 
-        public String getActualBlock() {
+        public int getActualBlock() {
             return actualBlock;
         }
     }
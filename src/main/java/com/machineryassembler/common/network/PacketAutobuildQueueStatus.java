@@ -0,0 +1,76 @@
+// SPDX-License-Identifier: GPL-3.0-or-later
+// SPDX-FileCopyrightText: 2026 Machinery Assembler Contributors
+
+package com.machineryassembler.common.network;
+
+import io.netty.buffer.ByteBuf;
+
+import net.minecraft.client.Minecraft;
+import net.minecraftforge.fml.common.network.simpleimpl.IMessage;
+import net.minecraftforge.fml.common.network.simpleimpl.IMessageHandler;
+import net.minecraftforge.fml.common.network.simpleimpl.MessageContext;
+import net.minecraftforge.fml.relauncher.Side;
+import net.minecraftforge.fml.relauncher.SideOnly;
+
+import com.machineryassembler.client.autobuild.AutobuildHandler;
+
+
+/**
+ * Server -> Client packet reporting what happened to an autobuild request before it started building.
+ */
+public class PacketAutobuildQueueStatus implements IMessage {
+
+    public enum Status {
+        /** Waiting for a free slot, {@link #getValue()} is the position in the queue (1-based). */
+        QUEUED,
+        /** Left the queue and started. */
+        STARTED,
+        /** The same structure is already being built, or waiting to be, at the same place. */
+        DUPLICATE,
+        /** Can never fit the limits, or too many requests are already waiting. {@link #getValue()} is the limit hit. */
+        REJECTED
+    }
+
+    private Status status;
+    private int value;
+
+    public PacketAutobuildQueueStatus() {
+    }
+
+    public PacketAutobuildQueueStatus(Status status, int value) {
+        this.status = status;
+        this.value = value;
+    }
+
+    @Override
+    public void fromBytes(ByteBuf buf) {
+        status = Status.values()[buf.readByte()];
+        value = buf.readInt();
+    }
+
+    @Override
+    public void toBytes(ByteBuf buf) {
+        buf.writeByte(status.ordinal());
+        buf.writeInt(value);
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public int getValue() {
+        return value;
+    }
+
+    public static class Handler implements IMessageHandler<PacketAutobuildQueueStatus, IMessage> {
+        @Override
+        @SideOnly(Side.CLIENT)
+        public IMessage onMessage(PacketAutobuildQueueStatus message, MessageContext ctx) {
+            Minecraft.getMinecraft().addScheduledTask(() -> {
+                AutobuildHandler.handleQueueStatus(message);
+            });
+
+            return null;
+        }
+    }
+}
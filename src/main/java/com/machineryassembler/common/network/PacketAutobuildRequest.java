@@ -23,25 +23,32 @@ public class PacketAutobuildRequest implements IMessage {
 
     private ResourceLocation structureId;
     private BlockPos origin;
+    private int rotation;
 
     public PacketAutobuildRequest() {
     }
 
-    public PacketAutobuildRequest(ResourceLocation structureId, BlockPos origin) {
+    /**
+     * @param rotation Clockwise quarter turns of the previewed structure
+     */
+    public PacketAutobuildRequest(ResourceLocation structureId, BlockPos origin, int rotation) {
         this.structureId = structureId;
         this.origin = origin;
+        this.rotation = rotation;
     }
 
     @Override
     public void fromBytes(ByteBuf buf) {
         structureId = new ResourceLocation(ByteBufUtils.readUTF8String(buf));
         origin = BlockPos.fromLong(buf.readLong());
+        rotation = buf.readByte() & 3;
     }
 
     @Override
     public void toBytes(ByteBuf buf) {
         ByteBufUtils.writeUTF8String(buf, structureId.toString());
         buf.writeLong(origin.toLong());
+        buf.writeByte(rotation);
     }
 
     public ResourceLocation getStructureId() {
@@ -52,13 +59,18 @@ public class PacketAutobuildRequest implements IMessage {
         return origin;
     }
 
+    public int getRotation() {
+        return rotation;
+    }
+
     public static class Handler implements IMessageHandler<PacketAutobuildRequest, IMessage> {
         @Override
         public IMessage onMessage(PacketAutobuildRequest message, MessageContext ctx) {
             EntityPlayerMP player = ctx.getServerHandler().player;
 
             player.getServerWorld().addScheduledTask(() -> {
-                ServerAutobuildHandler.handleAutobuildRequest(player, message.getStructureId(), message.getOrigin());
+                ServerAutobuildHandler.handleAutobuildRequest(player, message.getStructureId(), message.getOrigin(),
+                    message.getRotation());
             });
 
             return null;
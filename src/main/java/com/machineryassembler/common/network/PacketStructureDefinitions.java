@@ -0,0 +1,112 @@
+// SPDX-License-Identifier: GPL-3.0-or-later
+// SPDX-FileCopyrightText: 2026 Machinery Assembler Contributors
+
+package com.machineryassembler.common.network;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.google.common.hash.HashCode;
+
+import io.netty.buffer.ByteBuf;
+
+import net.minecraft.client.Minecraft;
+import net.minecraft.util.ResourceLocation;
+import net.minecraftforge.fml.common.network.ByteBufUtils;
+import net.minecraftforge.fml.common.network.simpleimpl.IMessage;
+import net.minecraftforge.fml.common.network.simpleimpl.IMessageHandler;
+import net.minecraftforge.fml.common.network.simpleimpl.MessageContext;
+import net.minecraftforge.fml.relauncher.Side;
+import net.minecraftforge.fml.relauncher.SideOnly;
+
+import com.machineryassembler.client.StructureSyncHandler;
+
+
+/**
+ * Server -> Client packet carrying requested structure definitions, deflated
+ * (see {@link com.machineryassembler.common.structure.StructureSync#compress}).
+ */
+public class PacketStructureDefinitions implements IMessage {
+
+    private List<Definition> definitions;
+
+    public PacketStructureDefinitions() {
+        this.definitions = new ArrayList<>();
+    }
+
+    public PacketStructureDefinitions(List<Definition> definitions) {
+        this.definitions = definitions;
+    }
+
+    @Override
+    public void fromBytes(ByteBuf buf) {
+        int count = ByteBufUtils.readVarInt(buf, 5);
+        definitions = new ArrayList<>(count);
+
+        for (int i = 0; i < count; i++) {
+            ResourceLocation structureId = new ResourceLocation(ByteBufUtils.readUTF8String(buf));
+            byte[] hash = new byte[buf.readUnsignedByte()];
+            buf.readBytes(hash);
+            byte[] data = new byte[ByteBufUtils.readVarInt(buf, 5)];
+            buf.readBytes(data);
+            definitions.add(new Definition(structureId, HashCode.fromBytes(hash).toString(), data));
+        }
+    }
+
+    @Override
+    public void toBytes(ByteBuf buf) {
+        ByteBufUtils.writeVarInt(buf, definitions.size(), 5);
+
+        for (Definition definition : definitions) {
+            ByteBufUtils.writeUTF8String(buf, definition.structureId.toString());
+            byte[] hash = HashCode.fromString(definition.hash).asBytes();
+            buf.writeByte(hash.length);
+            buf.writeBytes(hash);
+            ByteBufUtils.writeVarInt(buf, definition.data.length, 5);
+            buf.writeBytes(definition.data);
+        }
+    }
+
+    public List<Definition> getDefinitions() {
+        return definitions;
+    }
+
+    /**
+     * One structure's definition, as sent: its id, the hash of its JSON and the deflated JSON.
+     */
+    public static class Definition {
+        private final ResourceLocation structureId;
+        private final String hash;
+        private final byte[] data;
+
+        public Definition(ResourceLocation structureId, String hash, byte[] data) {
+            this.structureId = structureId;
+            this.hash = hash;
+            this.data = data;
+        }
+
+        public ResourceLocation getStructureId() {
+            return structureId;
+        }
+
+        public String getHash() {
+            return hash;
+        }
+
+        public byte[] getData() {
+            return data;
+        }
+    }
+
+    public static class Handler implements IMessageHandler<PacketStructureDefinitions, IMessage> {
+        @Override
+        @SideOnly(Side.CLIENT)
+        public IMessage onMessage(PacketStructureDefinitions message, MessageContext ctx) {
+            Minecraft.getMinecraft().addScheduledTask(() -> {
+                StructureSyncHandler.handleDefinitions(message);
+            });
+
+            return null;
+        }
+    }
+}
@@ -0,0 +1,81 @@
+// SPDX-License-Identifier: GPL-3.0-or-later
+// SPDX-FileCopyrightText: 2026 Machinery Assembler Contributors
+
+package com.machineryassembler.common.network;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import com.google.common.hash.HashCode;
+
+import io.netty.buffer.ByteBuf;
+
+import net.minecraft.client.Minecraft;
+import net.minecraft.util.ResourceLocation;
+import net.minecraftforge.fml.common.network.ByteBufUtils;
+import net.minecraftforge.fml.common.network.simpleimpl.IMessage;
+import net.minecraftforge.fml.common.network.simpleimpl.IMessageHandler;
+import net.minecraftforge.fml.common.network.simpleimpl.MessageContext;
+import net.minecraftforge.fml.relauncher.Side;
+import net.minecraftforge.fml.relauncher.SideOnly;
+
+import com.machineryassembler.client.StructureSyncHandler;
+
+
+/**
+ * Server -> Client packet listing the server's structures, with the hash of their definitions
+ * (see {@link com.machineryassembler.common.structure.StructureSync}). Hashes are sent as raw bytes.
+ */
+public class PacketStructureManifest implements IMessage {
+
+    private Map<ResourceLocation, String> hashes;
+
+    public PacketStructureManifest() {
+        this.hashes = new LinkedHashMap<>();
+    }
+
+    public PacketStructureManifest(Map<ResourceLocation, String> hashes) {
+        this.hashes = hashes;
+    }
+
+    @Override
+    public void fromBytes(ByteBuf buf) {
+        int count = ByteBufUtils.readVarInt(buf, 5);
+        hashes = new LinkedHashMap<>(count);
+
+        for (int i = 0; i < count; i++) {
+            ResourceLocation structureId = new ResourceLocation(ByteBufUtils.readUTF8String(buf));
+            byte[] hash = new byte[buf.readUnsignedByte()];
+            buf.readBytes(hash);
+            hashes.put(structureId, HashCode.fromBytes(hash).toString());
+        }
+    }
+
+    @Override
+    public void toBytes(ByteBuf buf) {
+        ByteBufUtils.writeVarInt(buf, hashes.size(), 5);
+
+        for (Map.Entry<ResourceLocation, String> entry : hashes.entrySet()) {
+            byte[] hash = HashCode.fromString(entry.getValue()).asBytes();
+            ByteBufUtils.writeUTF8String(buf, entry.getKey().toString());
+            buf.writeByte(hash.length);
+            buf.writeBytes(hash);
+        }
+    }
+
+    public Map<ResourceLocation, String> getHashes() {
+        return hashes;
+    }
+
+    public static class Handler implements IMessageHandler<PacketStructureManifest, IMessage> {
+        @Override
+        @SideOnly(Side.CLIENT)
+        public IMessage onMessage(PacketStructureManifest message, MessageContext ctx) {
+            Minecraft.getMinecraft().addScheduledTask(() -> {
+                StructureSyncHandler.handleManifest(message);
+            });
+
+            return null;
+        }
+    }
+}
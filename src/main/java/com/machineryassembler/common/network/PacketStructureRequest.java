@@ -0,0 +1,98 @@
+// SPDX-License-Identifier: GPL-3.0-or-later
+// SPDX-FileCopyrightText: 2026 Machinery Assembler Contributors
+
+package com.machineryassembler.common.network;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import io.netty.buffer.ByteBuf;
+
+import net.minecraft.entity.player.EntityPlayerMP;
+import net.minecraft.util.ResourceLocation;
+import net.minecraftforge.fml.common.network.ByteBufUtils;
+import net.minecraftforge.fml.common.network.simpleimpl.IMessage;
+import net.minecraftforge.fml.common.network.simpleimpl.IMessageHandler;
+import net.minecraftforge.fml.common.network.simpleimpl.MessageContext;
+
+import com.machineryassembler.common.structure.StructureSync;
+
+
+/**
+ * Client -> Server packet requesting the definitions of structures the client doesn't have.
+ * Client packets are limited to 32 KiB, so long lists are sent as several packets (see {@link #split}).
+ */
+public class PacketStructureRequest implements IMessage {
+
+    /** Encoded size budget of one request, leaving room under the client payload limit. */
+    private static final int MAX_PACKET_BYTES = 30000;
+
+    private List<ResourceLocation> structureIds;
+
+    public PacketStructureRequest() {
+        this.structureIds = new ArrayList<>();
+    }
+
+    private PacketStructureRequest(List<ResourceLocation> structureIds) {
+        this.structureIds = structureIds;
+    }
+
+    /**
+     * Build the requests for the given structures, each within the client payload limit.
+     */
+    public static List<PacketStructureRequest> split(List<ResourceLocation> structureIds) {
+        List<PacketStructureRequest> packets = new ArrayList<>();
+        List<ResourceLocation> batch = new ArrayList<>();
+        int batchBytes = 0;
+
+        for (ResourceLocation structureId : structureIds) {
+            // Worst case of the UTF-8 string and its length prefix
+            int size = structureId.toString().length() * 3 + 3;
+
+            if (!batch.isEmpty() && batchBytes + size > MAX_PACKET_BYTES) {
+                packets.add(new PacketStructureRequest(batch));
+                batch = new ArrayList<>();
+                batchBytes = 0;
+            }
+
+            batch.add(structureId);
+            batchBytes += size;
+        }
+
+        if (!batch.isEmpty()) packets.add(new PacketStructureRequest(batch));
+
+        return packets;
+    }
+
+    @Override
+    public void fromBytes(ByteBuf buf) {
+        int count = ByteBufUtils.readVarInt(buf, 5);
+        structureIds = new ArrayList<>(Math.min(count, 1024));
+
+        for (int i = 0; i < count; i++) structureIds.add(new ResourceLocation(ByteBufUtils.readUTF8String(buf)));
+    }
+
+    @Override
+    public void toBytes(ByteBuf buf) {
+        ByteBufUtils.writeVarInt(buf, structureIds.size(), 5);
+
+        for (ResourceLocation structureId : structureIds) ByteBufUtils.writeUTF8String(buf, structureId.toString());
+    }
+
+    public List<ResourceLocation> getStructureIds() {
+        return structureIds;
+    }
+
+    public static class Handler implements IMessageHandler<PacketStructureRequest, IMessage> {
+        @Override
+        public IMessage onMessage(PacketStructureRequest message, MessageContext ctx) {
+            EntityPlayerMP player = ctx.getServerHandler().player;
+
+            player.getServerWorld().addScheduledTask(() -> {
+                StructureSync.handleDefinitionRequest(player, message.getStructureIds());
+            });
+
+            return null;
+        }
+    }
+}
@@ -0,0 +1,287 @@
+// SPDX-License-Identifier: GPL-3.0-or-later
+// SPDX-FileCopyrightText: 2026 Machinery Assembler Contributors
+
+package com.machineryassembler.common.network;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.function.Function;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+
+import it.unimi.dsi.fastutil.ints.Int2IntOpenHashMap;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+
+import net.minecraft.util.math.BlockPos;
+import net.minecraftforge.fml.common.network.ByteBufUtils;
+
+
+/**
+ * Compact encodings shared by the autobuild report packets.
+ * <p>
+ * Positions are sent relative to the build origin, as zigzag varint deltas from the previous position.
+ * Reports follow placement order, which walks chunk sections block by block, so most deltas fit in a byte.
+ * Sets of positions whose order doesn't matter may instead be sent as a bitset over their bounding box,
+ * whichever is smaller, so densely obstructed builds cost about a bit per position.
+ * <p>
+ * Block state ids go through a per-packet {@link Palette}, so each distinct state is sent once.
+ * <p>
+ * Reports too big for one packet are {@link #split} into self-contained fragments,
+ * so the client can act on each one as it arrives.
+ */
+final class ReportEncoding {
+
+    private static final int VARINT_MAX_SIZE = 5;
+
+    /** Encoded size budget of one report fragment, far below the custom payload limit. */
+    private static final int MAX_FRAGMENT_BYTES = 64 * 1024;
+
+    private static final int POSITIONS_DELTAS = 0;
+    private static final int POSITIONS_BITSET = 1;
+
+    private ReportEncoding() {
+    }
+
+    static void writeVarInt(ByteBuf buf, int value) {
+        ByteBufUtils.writeVarInt(buf, value, VARINT_MAX_SIZE);
+    }
+
+    static int readVarInt(ByteBuf buf) {
+        return ByteBufUtils.readVarInt(buf, VARINT_MAX_SIZE);
+    }
+
+    private static void writeSignedVarInt(ByteBuf buf, int value) {
+        writeVarInt(buf, zigzag(value));
+    }
+
+    private static int readSignedVarInt(ByteBuf buf) {
+        int value = readVarInt(buf);
+
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private static int zigzag(int value) {
+        return (value << 1) ^ (value >> 31);
+    }
+
+    private static int deltaSize(BlockPos from, BlockPos to) {
+        return varIntSize(zigzag(to.getX() - from.getX()))
+            + varIntSize(zigzag(to.getY() - from.getY()))
+            + varIntSize(zigzag(to.getZ() - from.getZ()));
+    }
+
+    private static int varIntSize(int value) {
+        int size = 1;
+
+        while ((value & -128) != 0) {
+            value >>>= 7;
+            size++;
+        }
+
+        return size;
+    }
+
+    /**
+     * Split items into consecutive runs that each encode within {@link #MAX_FRAGMENT_BYTES}.
+     * The size of each item is its position's delta encoding plus a fixed allowance for its other fields.
+     * Every run holds at least one item, and an empty list gives a single empty run.
+     *
+     * @param extraBytes Upper bound of what each item encodes besides its position
+     */
+    static <T> List<List<T>> split(List<T> items, Function<T, BlockPos> position, BlockPos origin, int extraBytes) {
+        List<List<T>> runs = new ArrayList<>();
+        int start = 0;
+        int size = 0;
+        BlockPos previous = origin;
+
+        for (int i = 0; i < items.size(); i++) {
+            BlockPos pos = position.apply(items.get(i));
+            int itemSize = extraBytes + deltaSize(previous, pos);
+
+            if (i > start && size + itemSize > MAX_FRAGMENT_BYTES) {
+                runs.add(items.subList(start, i));
+                start = i;
+                size = 0;
+
+                // Each run restarts its deltas from the origin
+                itemSize = extraBytes + deltaSize(origin, pos);
+            }
+
+            size += itemSize;
+            previous = pos;
+        }
+
+        runs.add(items.subList(start, items.size()));
+
+        return runs;
+    }
+
+    /**
+     * Write positions, keeping their order.
+     */
+    static void writePositionList(ByteBuf buf, BlockPos origin, List<BlockPos> positions) {
+        writeVarInt(buf, positions.size());
+        writeDeltas(buf, origin, positions);
+    }
+
+    static List<BlockPos> readPositionList(ByteBuf buf, BlockPos origin) {
+        int count = readVarInt(buf);
+
+        return readDeltas(buf, origin, count);
+    }
+
+    /**
+     * Write positions whose order doesn't matter, picking the smaller of the delta and bitset encodings.
+     * Duplicates are not preserved by the bitset encoding.
+     */
+    static void writePositionSet(ByteBuf buf, BlockPos origin, List<BlockPos> positions) {
+        writeVarInt(buf, positions.size());
+        if (positions.isEmpty()) return;
+
+        ByteBuf deltas = Unpooled.buffer();
+        writeDeltas(deltas, origin, positions);
+
+        int minX = Integer.MAX_VALUE, minY = Integer.MAX_VALUE, minZ = Integer.MAX_VALUE;
+        int maxX = Integer.MIN_VALUE, maxY = Integer.MIN_VALUE, maxZ = Integer.MIN_VALUE;
+
+        for (BlockPos pos : positions) {
+            minX = Math.min(minX, pos.getX());
+            minY = Math.min(minY, pos.getY());
+            minZ = Math.min(minZ, pos.getZ());
+            maxX = Math.max(maxX, pos.getX());
+            maxY = Math.max(maxY, pos.getY());
+            maxZ = Math.max(maxZ, pos.getZ());
+        }
+
+        long sizeX = (long) maxX - minX + 1;
+        long sizeY = (long) maxY - minY + 1;
+        long sizeZ = (long) maxZ - minZ + 1;
+        long volume = sizeX * sizeY * sizeZ;
+
+        // Bitset payload plus a generous allowance for its box header
+        if (volume >= Integer.MAX_VALUE || (volume + 7) / 8 + 32 >= deltas.readableBytes()) {
+            writeVarInt(buf, POSITIONS_DELTAS);
+            buf.writeBytes(deltas);
+
+            return;
+        }
+
+        BitSet bits = new BitSet((int) volume);
+
+        for (BlockPos pos : positions) {
+            int index = (int) (((pos.getY() - minY) * sizeZ + (pos.getZ() - minZ)) * sizeX + (pos.getX() - minX));
+            bits.set(index);
+        }
+
+        byte[] bytes = bits.toByteArray();
+
+        writeVarInt(buf, POSITIONS_BITSET);
+        writeSignedVarInt(buf, minX - origin.getX());
+        writeSignedVarInt(buf, minY - origin.getY());
+        writeSignedVarInt(buf, minZ - origin.getZ());
+        writeVarInt(buf, (int) sizeX);
+        writeVarInt(buf, (int) sizeZ);
+        writeVarInt(buf, bytes.length);
+        buf.writeBytes(bytes);
+    }
+
+    static List<BlockPos> readPositionSet(ByteBuf buf, BlockPos origin) {
+        int count = readVarInt(buf);
+        if (count == 0) return new ArrayList<>();
+
+        if (readVarInt(buf) == POSITIONS_DELTAS) return readDeltas(buf, origin, count);
+
+        int minX = origin.getX() + readSignedVarInt(buf);
+        int minY = origin.getY() + readSignedVarInt(buf);
+        int minZ = origin.getZ() + readSignedVarInt(buf);
+        int sizeX = readVarInt(buf);
+        int sizeZ = readVarInt(buf);
+
+        byte[] bytes = new byte[readVarInt(buf)];
+        buf.readBytes(bytes);
+        BitSet bits = BitSet.valueOf(bytes);
+
+        List<BlockPos> positions = new ArrayList<>(count);
+        int layer = sizeX * sizeZ;
+
+        for (int i = bits.nextSetBit(0); i >= 0; i = bits.nextSetBit(i + 1)) {
+            positions.add(new BlockPos(minX + i % sizeX, minY + i / layer, minZ + i % layer / sizeX));
+        }
+
+        return positions;
+    }
+
+    private static void writeDeltas(ByteBuf buf, BlockPos origin, List<BlockPos> positions) {
+        BlockPos previous = origin;
+
+        for (BlockPos pos : positions) {
+            writeSignedVarInt(buf, pos.getX() - previous.getX());
+            writeSignedVarInt(buf, pos.getY() - previous.getY());
+            writeSignedVarInt(buf, pos.getZ() - previous.getZ());
+            previous = pos;
+        }
+    }
+
+    private static List<BlockPos> readDeltas(ByteBuf buf, BlockPos origin, int count) {
+        List<BlockPos> positions = new ArrayList<>(count);
+        int x = origin.getX();
+        int y = origin.getY();
+        int z = origin.getZ();
+
+        for (int i = 0; i < count; i++) {
+            x += readSignedVarInt(buf);
+            y += readSignedVarInt(buf);
+            z += readSignedVarInt(buf);
+            positions.add(new BlockPos(x, y, z));
+        }
+
+        return positions;
+    }
+
+    /**
+     * Per-packet palette of block state ids. Entries refer to states by their index in the palette,
+     * which is written once before them.
+     */
+    static class Palette {
+        private final IntArrayList ids = new IntArrayList();
+        private final Int2IntOpenHashMap indices = new Int2IntOpenHashMap();
+
+        Palette() {
+            indices.defaultReturnValue(-1);
+        }
+
+        /**
+         * @return The palette index of the state id, added if it wasn't there yet
+         */
+        int indexOf(int stateId) {
+            int index = indices.get(stateId);
+
+            if (index == -1) {
+                index = ids.size();
+                ids.add(stateId);
+                indices.put(stateId, index);
+            }
+
+            return index;
+        }
+
+        void write(ByteBuf buf) {
+            writeVarInt(buf, ids.size());
+
+            for (int i = 0; i < ids.size(); i++) writeVarInt(buf, ids.getInt(i));
+        }
+
+        /**
+         * @return The state ids, indexed by palette index
+         */
+        static int[] read(ByteBuf buf) {
+            int[] ids = new int[readVarInt(buf)];
+
+            for (int i = 0; i < ids.length; i++) ids[i] = readVarInt(buf);
+
+            return ids;
+        }
+    }
+}
@@ -9,6 +9,8 @@ import javax.annotation.Nullable;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 import it.unimi.dsi.fastutil.objects.ObjectArrayList;
@@ -26,6 +28,7 @@ import net.minecraft.util.EnumFacing;
 import net.minecraft.util.math.BlockPos;
 import net.minecraft.util.math.RayTraceResult;
 import net.minecraft.util.math.Vec3d;
+import net.minecraft.world.IBlockAccess;
 import net.minecraft.world.World;
 import net.minecraftforge.fluids.Fluid;
 import net.minecraftforge.fluids.FluidRegistry;
@@ -47,6 +50,9 @@ public class BlockRequirement {
 
     public static final int CYCLE_TICK_SPEED = 30;
 
+    // Display stacks of the states converted so far, shared by all requirements and copied on the way out
+    private static final Map<IBlockState, ItemStack> STATE_STACKS = new ConcurrentHashMap<>();
+
     private List<BlockStateMatcher> matchingStates = new ObjectArrayList<>();
     private List<IBlockState> samples = new ObjectArrayList<>();
 
@@ -247,7 +253,7 @@ public class BlockRequirement {
         return bi;
     }
 
-    public boolean matchesState(World world, BlockPos at, IBlockState state) {
+    public boolean matchesState(IBlockAccess world, BlockPos at, IBlockState state) {
         Block atBlock = state.getBlock();
         int atMeta = atBlock.getMetaFromState(state);
 
@@ -290,11 +296,27 @@ public class BlockRequirement {
         return samples;
     }
 
+    /**
+     * Forget the display stacks of all states, such as when registries or resources were reloaded.
+     */
+    public static void clearStackCache() {
+        STATE_STACKS.clear();
+    }
+
+    /**
+     * Gets the ItemStack for displaying a block state, converted once per state.
+     *
+     * @return A copy, free to be modified
+     */
+    private static ItemStack getStackFromBlockState(IBlockState state) {
+        return STATE_STACKS.computeIfAbsent(state, BlockRequirement::createStackFromBlockState).copy();
+    }
+
     /**
      * Converts a block state to its corresponding ItemStack for display.
      * Uses a generalized approach that works for most blocks including fluids.
      */
-    private static ItemStack getStackFromBlockState(IBlockState state) {
+    private static ItemStack createStackFromBlockState(IBlockState state) {
         Block block = state.getBlock();
 
         // Handle vanilla fluid blocks (water, lava) - FluidRegistry.lookupFluidForBlock doesn't work for these
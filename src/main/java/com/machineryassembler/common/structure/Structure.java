@@ -5,6 +5,7 @@ package com.machineryassembler.common.structure;
 
 import java.lang.reflect.Type;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -44,11 +45,20 @@ public class Structure {
     protected final ResourceLocation registryName;
     protected final StructurePattern pattern = new StructurePattern();
 
+    // Pattern turned clockwise by index quarter turns, built on first use
+    private final StructurePattern[] rotatedPatterns = new StructurePattern[4];
+
     protected boolean registerAsItem = false;
     protected List<StructureMessage> messages = new ArrayList<>();
     @Nullable
     protected StructureOutput output = null;
 
+    // JSON the structure was loaded from, what servers send to clients
+    @Nullable
+    protected String definition = null;
+    @Nullable
+    private String definitionHash = null;
+
     public Structure(String registryName) {
         this.registryName = new ResourceLocation(MachineryAssembler.MODID, registryName);
     }
@@ -66,6 +76,25 @@ public class Structure {
         return pattern;
     }
 
+    /**
+     * Get the pattern rotated clockwise around the Y axis, with its block states rotated too.
+     * Each rotation is built once and kept until the structure is reloaded.
+     *
+     * @param quarterTurns Number of 90 degree clockwise turns, taken modulo 4
+     */
+    public synchronized StructurePattern getRotatedPattern(int quarterTurns) {
+        int turns = quarterTurns & 3;
+        if (turns == 0) return pattern;
+
+        StructurePattern rotated = rotatedPatterns[turns];
+        if (rotated == null) {
+            rotated = getRotatedPattern(turns - 1).rotateYCW();
+            rotatedPatterns[turns] = rotated;
+        }
+
+        return rotated;
+    }
+
     @SideOnly(Side.CLIENT)
     public String getLocalizedName() {
         String localizationKey = registryName.getNamespace() + "." + registryName.getPath();
@@ -99,11 +128,34 @@ public class Structure {
         this.output = output;
     }
 
-    public void mergeFrom(Structure another) {
+    @Nullable
+    public String getDefinition() {
+        return definition;
+    }
+
+    public synchronized void setDefinition(@Nullable String definition) {
+        this.definition = definition;
+        this.definitionHash = null;
+    }
+
+    /**
+     * @return The hash of the JSON definition (see {@link StructureSync#hash}), or null if it wasn't loaded from JSON
+     */
+    @Nullable
+    public synchronized String getDefinitionHash() {
+        if (definitionHash == null && definition != null) definitionHash = StructureSync.hash(definition);
+
+        return definitionHash;
+    }
+
+    public synchronized void mergeFrom(Structure another) {
         pattern.overwrite(another.pattern);
+        Arrays.fill(rotatedPatterns, null);
         registerAsItem = another.registerAsItem;
         messages = another.messages;
         output = another.output;
+        definition = another.definition;
+        definitionHash = null;
     }
 
     @Override
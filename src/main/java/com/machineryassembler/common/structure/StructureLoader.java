@@ -14,6 +14,7 @@ import java.util.Map;
 import com.google.common.collect.Lists;
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
+import com.google.gson.JsonParseException;
 
 import net.minecraft.util.JsonUtils;
 import net.minecraft.util.Tuple;
@@ -101,6 +102,7 @@ public class StructureLoader {
             try {
                 Structure loadedStructure = JsonUtils.fromJson(GSON, registryAndJsonStr.getSecond(), Structure.class, false);
                 if (loadedStructure != null) {
+                    loadedStructure.setDefinition(registryAndJsonStr.getSecond());
                     preloadStructure.mergeFrom(loadedStructure);
                     loadedStructures.add(preloadStructure);
                 }
@@ -112,6 +114,19 @@ public class StructureLoader {
         return loadedStructures;
     }
 
+    /**
+     * Loads a single structure from its JSON definition, in one pass.
+     * Used for definitions received from a server.
+     */
+    public static Structure loadFromString(String jsonString) throws JsonParseException {
+        Structure structure = JsonUtils.fromJson(GSON, jsonString, Structure.class, false);
+        if (structure == null) throw new JsonParseException("Empty structure definition!");
+
+        structure.setDefinition(jsonString);
+
+        return structure;
+    }
+
     /**
      * Returns and clears the map of failed loading attempts.
      */
@@ -132,14 +132,7 @@ public class StructureRegistry implements Iterable<Structure> {
         }
 
         // Merge or add structures
-        for (Structure structure : loadedStructures) {
-            Structure loaded = LOADED_STRUCTURES.get(structure.getRegistryName());
-            if (loaded != null) {
-                loaded.mergeFrom(structure);
-            } else {
-                LOADED_STRUCTURES.put(structure.getRegistryName(), structure);
-            }
-        }
+        for (Structure structure : loadedStructures) mergeStructure(structure);
 
         if (sender != null) {
             sender.sendMessage(new TextComponentString(TextFormatting.GREEN + "Reloaded " + loadedStructures.size() + " structures. Total: " + LOADED_STRUCTURES.size()));
@@ -161,6 +154,26 @@ public class StructureRegistry implements Iterable<Structure> {
         MachineryAssembler.proxy.scheduleClientStructureReload();
     }
 
+    /**
+     * Merges a structure into the one already registered under its name, or registers it if there is none.
+     * Existing instances are kept, since previews and JEI hold on to them.
+     */
+    public static void mergeStructure(Structure structure) {
+        Structure loaded = LOADED_STRUCTURES.get(structure.getRegistryName());
+        if (loaded != null) {
+            loaded.mergeFrom(structure);
+        } else {
+            LOADED_STRUCTURES.put(structure.getRegistryName(), structure);
+        }
+    }
+
+    /**
+     * Unregisters a structure, used to drop structures a server sent once leaving it.
+     */
+    public static void removeStructure(ResourceLocation name) {
+        LOADED_STRUCTURES.remove(name);
+    }
+
     public static List<Structure> getLoadedStructures() {
         return Collections.unmodifiableList(new ArrayList<>(LOADED_STRUCTURES.values()));
     }
@@ -0,0 +1,172 @@
+// SPDX-License-Identifier: GPL-3.0-or-later
+// SPDX-FileCopyrightText: 2026 Machinery Assembler Contributors
+
+package com.machineryassembler.common.structure;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+import com.google.common.hash.Hashing;
+
+import net.minecraft.entity.player.EntityPlayerMP;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.util.ResourceLocation;
+import net.minecraftforge.fml.common.eventhandler.SubscribeEvent;
+import net.minecraftforge.fml.common.gameevent.PlayerEvent;
+
+import com.machineryassembler.common.network.NetworkHandler;
+import com.machineryassembler.common.network.PacketStructureDefinitions;
+import com.machineryassembler.common.network.PacketStructureManifest;
+
+
+/**
+ * Server side of the structure definition sync.
+ * <p>
+ * Clients build previews and JEI pages from their own structure files, which may not match the server's.
+ * On login and after a reload, the server sends each client a manifest of its structure ids and the hash of
+ * their JSON definitions. Clients keep what they already have, locally or in their cache keyed by hash,
+ * and only request the rest, which is sent deflated. Each definition is only sent once per manifest,
+ * and only if that manifest listed it.
+ */
+public class StructureSync {
+
+    /** Compressed size budget of one definitions packet. */
+    private static final int MAX_PACKET_BYTES = 256 * 1024;
+
+    /** Refuse to inflate definitions past this size, no structure file comes close. */
+    private static final int MAX_DEFINITION_BYTES = 16 * 1024 * 1024;
+
+    // Compressed definitions by hash, computed on the first request for them
+    private static final Map<String, byte[]> COMPRESSED = new HashMap<>();
+
+    // Ids of each player's last manifest whose definitions weren't requested yet
+    private static final Map<UUID, Set<ResourceLocation>> UNSENT = new HashMap<>();
+
+    private StructureSync() {
+    }
+
+    /**
+     * @return The hex SHA-1 of a JSON definition
+     */
+    public static String hash(String definition) {
+        return Hashing.sha1().hashString(definition, StandardCharsets.UTF_8).toString();
+    }
+
+    public static byte[] compress(String definition) {
+        Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+        deflater.setInput(definition.getBytes(StandardCharsets.UTF_8));
+        deflater.finish();
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buffer = new byte[4096];
+
+        while (!deflater.finished()) out.write(buffer, 0, deflater.deflate(buffer));
+        deflater.end();
+
+        return out.toByteArray();
+    }
+
+    public static String decompress(byte[] data) throws DataFormatException {
+        Inflater inflater = new Inflater();
+        inflater.setInput(data);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buffer = new byte[4096];
+
+        try {
+            while (!inflater.finished()) {
+                int count = inflater.inflate(buffer);
+                if (count == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    throw new DataFormatException("Truncated structure definition");
+                }
+
+                out.write(buffer, 0, count);
+                if (out.size() > MAX_DEFINITION_BYTES) throw new DataFormatException("Structure definition too large");
+            }
+        } finally {
+            inflater.end();
+        }
+
+        return new String(out.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    @SubscribeEvent
+    public static void onPlayerLoggedIn(PlayerEvent.PlayerLoggedInEvent event) {
+        if (event.player instanceof EntityPlayerMP) sendManifest((EntityPlayerMP) event.player);
+    }
+
+    @SubscribeEvent
+    public static void onPlayerLoggedOut(PlayerEvent.PlayerLoggedOutEvent event) {
+        UNSENT.remove(event.player.getUniqueID());
+    }
+
+    /**
+     * Send the manifest again to every player, after the structures were reloaded.
+     */
+    public static void sendManifestToAll(MinecraftServer server) {
+        // Nobody will ask for the old hashes again
+        COMPRESSED.clear();
+
+        for (EntityPlayerMP player : server.getPlayerList().getPlayers()) sendManifest(player);
+    }
+
+    public static void sendManifest(EntityPlayerMP player) {
+        // The integrated server's owner shares its registry, there is nothing to sync
+        if (player.connection.getNetworkManager().isLocalChannel()) return;
+
+        Map<ResourceLocation, String> manifest = new LinkedHashMap<>();
+
+        for (Structure structure : StructureRegistry.getRegistry()) {
+            String hash = structure.getDefinitionHash();
+            if (hash != null) manifest.put(structure.getRegistryName(), hash);
+        }
+
+        UNSENT.put(player.getUniqueID(), new HashSet<>(manifest.keySet()));
+        NetworkHandler.INSTANCE.sendTo(new PacketStructureManifest(manifest), player);
+    }
+
+    /**
+     * Send the requested definitions, batched by compressed size.
+     * Ids that weren't in the player's manifest, or were already sent for it, are ignored.
+     */
+    public static void handleDefinitionRequest(EntityPlayerMP player, List<ResourceLocation> structureIds) {
+        Set<ResourceLocation> unsent = UNSENT.get(player.getUniqueID());
+        if (unsent == null) return;
+
+        List<PacketStructureDefinitions.Definition> batch = new ArrayList<>();
+        int batchBytes = 0;
+
+        for (ResourceLocation structureId : structureIds) {
+            if (!unsent.remove(structureId)) continue;
+
+            Structure structure = StructureRegistry.getRegistry().getStructure(structureId);
+            if (structure == null || structure.getDefinition() == null) continue;
+
+            String definition = structure.getDefinition();
+            String hash = structure.getDefinitionHash();
+            byte[] data = COMPRESSED.computeIfAbsent(hash, h -> compress(definition));
+
+            if (!batch.isEmpty() && batchBytes + data.length > MAX_PACKET_BYTES) {
+                NetworkHandler.INSTANCE.sendTo(new PacketStructureDefinitions(batch), player);
+                batch = new ArrayList<>();
+                batchBytes = 0;
+            }
+
+            batch.add(new PacketStructureDefinitions.Definition(structureId, hash, data));
+            batchBytes += data.length;
+        }
+
+        if (!batch.isEmpty()) NetworkHandler.INSTANCE.sendTo(new PacketStructureDefinitions(batch), player);
+    }
+}